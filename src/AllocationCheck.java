@@ -0,0 +1,86 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes the game logic allocates per frame over a long headless run.
+ *
+ * Each level is played until it ends by a scripted player who walks, climbs, jumps
+ * and shoots, after a warm-up so the JIT has compiled the hot paths. Each frame is
+ * updated and then rendered into a RenderBuffer and sorted, as the simulation thread
+ * does for every frame it publishes. Only the frames are measured, not building the
+ * level. The check fails if any level
+ * allocates more than the byte budget, which is zero unless one is given.
+ */
+public class AllocationCheck {
+
+    // Number of full levels played before measuring, so the JIT has compiled the hot paths
+    private static final int WARM_UP_RUNS = 20;
+
+    // Seed of the scripted player, so every run plays the same game
+    private static final long INPUT_SEED = 7L;
+
+    // Reused by every run, so it has grown to the size of a frame during the warm-up
+    private static final RenderBuffer BUFFER = new RenderBuffer();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+
+    /**
+     * Plays and renders a level with scripted input and returns the average bytes
+     * allocated per frame.
+     *
+     * @param simulator The simulator used to build the level
+     * @param level The level number (1 or 2)
+     * @return The average number of bytes allocated per frame
+     */
+    public static double bytesPerFrame(HeadlessSimulator simulator, int level) {
+        GamePlayScreen screen = simulator.createLevel(level);
+        InputScript script = new RandomInputScript(INPUT_SEED);
+        FrameInput input = new FrameInput();
+        long threadId = Thread.currentThread().getId();
+        int frames = 0;
+
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        boolean levelEnded = false;
+        while (!levelEnded) {
+            input.clear();
+            script.fill(frames, input);
+            levelEnded = screen.update(input);
+            BUFFER.clear();
+            screen.render(BUFFER);
+            BUFFER.sortByImage();
+            frames++;
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return (double) allocated / frames;
+    }
+
+
+    /**
+     * Reports the allocation rate of each level.
+     *
+     * @param args Optionally, the maximum allowed bytes per frame, 0 by default; if any level
+     *             exceeds it the process exits with status 1.
+     */
+    public static void main(String[] args) {
+        double budget = (args.length > 0) ? Double.parseDouble(args[0]) : 0;
+
+        HeadlessSimulator simulator = new HeadlessSimulator(GameConfigLoader.load());
+
+        boolean withinBudget = true;
+        for (int level = 1; level <= 2; level++) {
+            for (int i = 0; i < WARM_UP_RUNS; i++) {
+                bytesPerFrame(simulator, level);
+            }
+            double rate = bytesPerFrame(simulator, level);
+            System.out.printf("level %d: %.2f bytes/frame%n", level, rate);
+            withinBudget &= rate <= budget;
+        }
+
+        if (!withinBudget) {
+            System.out.println("Allocation rate is over the budget of " + budget + " bytes/frame");
+            System.exit(1);
+        }
+    }
+}
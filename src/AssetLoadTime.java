@@ -0,0 +1,20 @@
+/**
+ * How long one asset took to load in one stage of loading.
+ *
+ * @param asset The asset's file path, followed by "@size" for fonts
+ * @param stage "read" for reading the file, or "create" for creating the Bagel
+ *              image or font from it
+ * @param nanos The time taken, in nanoseconds
+ */
+public record AssetLoadTime(String asset, String stage, long nanos) {
+
+    /**
+     * Formats the time as a single human-readable line.
+     *
+     * @return The load time summary
+     */
+    @Override
+    public String toString() {
+        return String.format("%-6s %8.3fms %s", stage, nanos / 1_000_000.0, asset);
+    }
+}
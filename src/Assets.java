@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * The single place every image and font of the game is loaded from.
+ *
+ * Each image is loaded once per path and each font once per path and size, then
+ * shared by every entity and screen that uses it. Lookups are safe from any thread,
+ * so levels simulated in parallel share the same sprites.
+ *
+ * Loading happens in two phases. preload starts a background thread that reads every
+ * image and font file, so the files are in memory and every sprite's size is known
+ * before the game needs them. Bagel can only create images and fonts on the thread
+ * owning the window, so createGraphics then creates all of them there in one go at
+ * start-up, instead of one at a time the first time each is drawn.
+ *
+ * The time each asset took in each phase is recorded and can be printed with
+ * printLoadTimes.
+ */
+public final class Assets {
+
+    // Every image in this directory is preloaded
+    public static final String RESOURCE_DIRECTORY = "res";
+
+    private static final String READ_STAGE = "read";
+    private static final String CREATE_STAGE = "create";
+
+    private static final ConcurrentHashMap<String, Sprite> SPRITES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<FontKey, GameFont> FONTS = new ConcurrentHashMap<>();
+    private static final ConcurrentLinkedQueue<AssetLoadTime> LOAD_TIMES = new ConcurrentLinkedQueue<>();
+
+    private static volatile CompletableFuture<Void> preload = CompletableFuture.completedFuture(null);
+
+
+    private Assets() {
+    }
+
+
+    /**
+     * Gets the sprite for an image, loading it the first time it is asked for.
+     *
+     * @param path The path of the image file
+     * @return The shared sprite
+     */
+    public static Sprite sprite(String path) {
+        Sprite sprite = SPRITES.get(path);
+        return (sprite != null) ? sprite : SPRITES.computeIfAbsent(path, Assets::readSprite);
+    }
+
+
+    /**
+     * Gets a font at a size, registering it the first time it is asked for.
+     *
+     * @param path The path of the font file
+     * @param size The font size
+     * @return The shared font
+     */
+    public static GameFont font(String path, int size) {
+        return FONTS.computeIfAbsent(new FontKey(path, size), key -> new GameFont(key.path(), key.size()));
+    }
+
+
+    /**
+     * Starts reading every image in the resource directory and every font the game
+     * settings use, on a background thread.
+     *
+     * @param config The game settings, naming the fonts and background image
+     * @return A future completed when every asset has been read
+     */
+    public static CompletableFuture<Void> preload(GameConfig config) {
+        HudLayout hud = config.hud();
+        int[] fontSizes = {hud.scoreFontSize(), hud.titleFontSize(), hud.promptFontSize(),
+                hud.statusFontSize(), hud.finalScoreFontSize()};
+
+        CompletableFuture<Void> loading = CompletableFuture.runAsync(() -> {
+            for (String path : listImages()) {
+                sprite(path);
+            }
+            sprite(config.backgroundImage());
+
+            long startTime = System.nanoTime();
+            readFully(hud.font());
+            LOAD_TIMES.add(new AssetLoadTime(hud.font(), READ_STAGE, System.nanoTime() - startTime));
+            for (int size : fontSizes) {
+                font(hud.font(), size);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "asset-preload");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        preload = loading;
+        return loading;
+    }
+
+
+    /**
+     * Waits for the preload to finish, then creates the Bagel image of every sprite
+     * and the Bagel font of every font loaded so far. Must be called on the thread
+     * that owns the window, after the window has been created.
+     */
+    public static void createGraphics() {
+        preload.join();
+        for (Sprite sprite : SPRITES.values()) {
+            long startTime = System.nanoTime();
+            sprite.createImage();
+            LOAD_TIMES.add(new AssetLoadTime(sprite.getPath(), CREATE_STAGE, System.nanoTime() - startTime));
+        }
+        for (GameFont font : FONTS.values()) {
+            long startTime = System.nanoTime();
+            font.createFont();
+            LOAD_TIMES.add(new AssetLoadTime(font.getPath() + "@" + font.getSize(), CREATE_STAGE,
+                    System.nanoTime() - startTime));
+        }
+    }
+
+
+    /**
+     * Gets the time taken to load each asset so far, slowest first.
+     *
+     * @return One entry per asset and loading stage
+     */
+    public static List<AssetLoadTime> getLoadTimes() {
+        List<AssetLoadTime> times = new ArrayList<>(LOAD_TIMES);
+        times.sort(Comparator.comparingLong(AssetLoadTime::nanos).reversed());
+        return times;
+    }
+
+    /**
+     * Prints the time taken to load each asset so far, slowest first, and the total.
+     */
+    public static void printLoadTimes() {
+        long total = 0;
+        for (AssetLoadTime time : getLoadTimes()) {
+            System.out.println(time);
+            total += time.nanos();
+        }
+        System.out.printf("assets loaded in %.2fms%n", total / 1_000_000.0);
+    }
+
+
+    private static Sprite readSprite(String path) {
+        long startTime = System.nanoTime();
+        readFully(path);
+        Sprite sprite = new Sprite(path);
+        LOAD_TIMES.add(new AssetLoadTime(path, READ_STAGE, System.nanoTime() - startTime));
+        return sprite;
+    }
+
+    // Reads the whole file once so it is cached by the time Bagel decodes it
+    private static void readFully(String path) {
+        try {
+            Files.readAllBytes(Path.of(path));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read asset " + path, ex);
+        }
+    }
+
+    private static List<String> listImages() {
+        try (Stream<Path> files = Files.list(Path.of(RESOURCE_DIRECTORY))) {
+            return files.filter(file -> file.toString().endsWith(".png"))
+                    .map(file -> RESOURCE_DIRECTORY + "/" + file.getFileName())
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list " + RESOURCE_DIRECTORY, ex);
+        }
+    }
+
+
+    private record FontKey(String path, int size) {
+    }
+
+
+    /**
+     * Preloads every asset without a window and prints how long each took to read.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        preload(GameConfigLoader.load()).join();
+        printLoadTimes();
+    }
+}
@@ -1,52 +1,68 @@
-import bagel.*;
-import java.util.ArrayList;
-
 /**
  * This class represents the barrel entity that lands and aligns to platforms
  * and can be destroyed or jumped over.
+ *
+ * Whether the barrel is destroyed is kept in its EntityStore slot.
  */
 public class Barrel extends GravityApplyingEntity {
 
-    private static final Image BARREL_IMG = new Image("res/barrel.png");
+    private static final Sprite BARREL_IMG = Assets.sprite("res/barrel.png");
     private static final double BARREL_GRAVITY = 0.4;
 
-    private boolean destroyed = false;
     private boolean jumped = false;
 
 
-    public Barrel(double x, double y) {
-        super(x, y, BARREL_IMG, BARREL_GRAVITY);
+    public Barrel(EntityStore store, double x, double y) {
+        super(store, x, y, BARREL_IMG, BARREL_GRAVITY);
     }
 
     /**
-     * Update barrel and render if not destroyed by Mario.
+     * Only renders if barrel is not destroyed by Mario.
      *
-     * @param platforms  array of all platforms
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void update(ArrayList<Platform> platforms) {
-        applyGravity();
-        alignToPlatforms(platforms);
-
-        if(!this.destroyed) {
-            super.draw();
+    public void draw(RenderBuffer buffer) {
+        if (isAlive()) {
+            super.draw(buffer);
         }
     }
 
+    /**
+     * Writes the barrel's movement state, whether it is destroyed and whether
+     * Mario is jumping over it.
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeBoolean(isAlive());
+        out.writeBoolean(jumped);
+    }
+
+    /**
+     * Restores the state written by saveState.
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        getStore().setAlive(getSlot(), in.readBoolean());
+        this.jumped = in.readBoolean();
+    }
+
     /**
      * Returns whether the barrel is still active (not destroyed).
      *
      * @return True if the barrel is not destroyed
      */
     public boolean isAlive() {
-        return !this.destroyed;
+        return getStore().isAlive(getSlot());
     }
 
     /**
      * Marks the barrel as destroyed so it no longer appears or interacts.
      */
     public void destroy() {
-        this.destroyed = true;
+        getStore().setAlive(getSlot(), false);
     }
 
     /**
@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many headless games at the same time on a fixed pool of worker threads.
+ *
+ * Every run builds its own level instance, so runs share nothing but immutable
+ * configuration (the properties, the screen size and the image dimensions held by
+ * each entity class's static sprites). Throughput therefore scales with the number
+ * of cores.
+ */
+public class BatchSimulator implements AutoCloseable {
+
+    private final HeadlessSimulator simulator;
+    private final ExecutorService workers;
+
+
+    public BatchSimulator(GameConfig config, int threadCount) {
+        // Publishes the screen size before any worker starts
+        this.simulator = new HeadlessSimulator(config);
+        this.workers = Executors.newFixedThreadPool(threadCount);
+    }
+
+
+    /**
+     * Plays a level once for each seed in a range, using seeded random input.
+     *
+     * @param level The level number to play (1 or 2)
+     * @param firstSeed The seed of the first run
+     * @param runCount The number of runs, using consecutive seeds
+     * @return The outcome of each run, in seed order
+     */
+    public List<SimulationResult> runSeeds(int level, long firstSeed, int runCount) {
+        List<InputScript> scripts = new ArrayList<>();
+        for (int i = 0; i < runCount; i++) {
+            scripts.add(new RandomInputScript(firstSeed + i));
+        }
+        return runScripts(level, scripts);
+    }
+
+
+    /**
+     * Plays a level once for each input script. Each script must only be used by one run.
+     *
+     * @param level The level number to play (1 or 2)
+     * @param scripts The input scripts to play
+     * @return The outcome of each run, in the order of the scripts
+     */
+    public List<SimulationResult> runScripts(int level, List<? extends InputScript> scripts) {
+        List<Future<SimulationResult>> pending = new ArrayList<>();
+        for (InputScript script : scripts) {
+            pending.add(workers.submit(() -> simulator.runLevel(level, script)));
+        }
+
+        List<SimulationResult> results = new ArrayList<>();
+        for (Future<SimulationResult> future : pending) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+
+    /**
+     * Stops the worker threads once all submitted runs have finished.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+
+    /**
+     * Waits for one run to finish, passing on any failure from the worker.
+     */
+    private static SimulationResult await(Future<SimulationResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for simulation", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Simulation failed", ex.getCause());
+        }
+    }
+
+
+    /**
+     * Runs a batch of seeded games and prints each outcome and the overall throughput.
+     *
+     * @param args Optional level number (default 1), run count (default 1000)
+     *             and thread count (default: all available cores).
+     */
+    public static void main(String[] args) {
+        int level = (args.length > 0) ? Integer.parseInt(args[0]) : 1;
+        int runCount = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+        int threadCount = (args.length > 2) ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        GameConfig config = GameConfigLoader.load();
+        try (BatchSimulator batch = new BatchSimulator(config, threadCount)) {
+            long startTime = System.nanoTime();
+            List<SimulationResult> results = batch.runSeeds(level, 0, runCount);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            long totalFrames = 0;
+            int wins = 0;
+            for (int i = 0; i < results.size(); i++) {
+                SimulationResult result = results.get(i);
+                System.out.println("seed=" + i + " " + result);
+                totalFrames += result.frames();
+                wins += result.gameWon() ? 1 : 0;
+            }
+            System.out.printf("%d runs (%d won) on %d threads in %.2fs: %.0f runs/s, %.0f frames/s%n",
+                    runCount, wins, threadCount, seconds, runCount / seconds, totalFrames / seconds);
+        }
+    }
+}
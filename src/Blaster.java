@@ -1,12 +1,10 @@
-import bagel.*;
-
 /**
  * This class represents the Blaster entity that can be collected by
  * Mario, allowing Mario to shoot and provide additional bullets.
  */
 public class Blaster extends Entity implements Collectable {
 
-    private static final Image BLASTER_IMG = new Image("res/blaster.png");
+    private static final Sprite BLASTER_IMG = Assets.sprite("res/blaster.png");
     private final int BULLET_COUNT = 5;
     private boolean collected;
 
@@ -18,15 +16,35 @@ public class Blaster extends Entity implements Collectable {
 
     /**
      * Only renders if hammer is still not collected.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void draw() {
+    public void draw(RenderBuffer buffer) {
         if(!this.collected) {
-            super.draw();
+            super.draw(buffer);
         }
     }
 
 
+    /**
+     * Writes whether the blaster has been collected.
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeBoolean(collected);
+    }
+
+    /**
+     * Restores the state written by saveState.
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        this.collected = in.readBoolean();
+    }
+
     /**
      * Sets the blaster's collected status to true after collected by Mario.
      */
@@ -1,7 +1,3 @@
-import bagel.*;
-import bagel.util.Rectangle;
-import java.util.ArrayList;
-
 /**
  * Represents a bullet fired by Mario when holding a blaster.
  *
@@ -9,63 +5,45 @@ import java.util.ArrayList;
  * to Donkey or Monkeys upon collision, and disappear after travelling a
  * maximum distance or upon hitting a platform or window boundary.
  */
-public class Bullet extends Entity implements AutomatedMovable {
+public class Bullet extends Projectile {
 
-    private static final Image BULLET_RIGHT_IMG = new Image("res/bullet_right.png");
-    private static final Image BULLET_LEFT_IMG = new Image("res/bullet_left.png");
+    private static final Sprite BULLET_RIGHT_IMG = Assets.sprite("res/bullet_right.png");
+    private static final Sprite BULLET_LEFT_IMG = Assets.sprite("res/bullet_left.png");
 
     // Constants for Bullet entity:
     private static final double MOVE_SPEED = 3.8;
     private static final double MAX_DISTANCE_PIXEL = 300;
     private static final int DAMAGE_TO_DONKEY = 1;
-    private final boolean shootingRight;
-
-    private double distanceTravelled = 0;
-    private boolean isAppear = true;
 
 
-    public Bullet(double x, double y, boolean shootingRight) {
-        super(x, y, BULLET_LEFT_IMG);
-        this.shootingRight = shootingRight;
+    public Bullet(EntityStore store, double x, double y, boolean shootingRight) {
+        super(store, x, y, shootingRight, BULLET_LEFT_IMG, MOVE_SPEED, MAX_DISTANCE_PIXEL);
     }
 
 
     /**
-     * Draws the bullet image depending on its facing direction.
-     */
-    @Override
-    public void draw() {
-        Image currentImage = this.shootingRight ? BULLET_RIGHT_IMG : BULLET_LEFT_IMG;
-        currentImage.draw(this.getPosX(), this.getPosY());
-    }
-
-
-    /**
-     * Moves the bullet in its firing direction, updating its horizontal position
-     * and the total distance it has travelled.
+     * Draws the bullet image depending on its facing direction, if still active.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void move() {
-        double velocityX = this.shootingRight ? MOVE_SPEED : -MOVE_SPEED;
-        this.setPosX(this.getPosX() + velocityX);
-        this.distanceTravelled += MOVE_SPEED;
+    public void draw(RenderBuffer buffer) {
+        if (this.isAppear()) {
+            Sprite currentImage = this.isShootingRight() ? BULLET_RIGHT_IMG : BULLET_LEFT_IMG;
+            this.drawImage(buffer, currentImage);
+        }
     }
 
 
     /**
-     * Updates the bullet's state: moves and renders if within range, or removes
-     * it if expired. Also checks for collisions with platforms or screen bounds.
+     * Updates the bullet's state: moves if within range, or removes it if expired.
+     * Also checks for collisions with platforms or screen bounds.
      *
-     * @param platforms The platforms to check for collisions
+     * @param platforms The index of platforms to check for collisions
      */
-    public void update(ArrayList<Platform> platforms) {
-        // Move and render bullet if still alive and within moving range
-        if (this.isAppear && this.distanceTravelled < MAX_DISTANCE_PIXEL) {
-            move();
-            draw();
-        } else {
-            disappear();
-        }
+    public void update(PlatformIndex platforms) {
+        // Move bullet if still alive and within moving range
+        moveWithinRange();
         checkPlatformCollisions(platforms);
         reachWindowEdge();
     }
@@ -78,9 +56,7 @@ public class Bullet extends Entity implements AutomatedMovable {
      * @param donkey The Donkey to check against
      */
     public void collideWithDonkey(Donkey donkey) {
-        Rectangle bulletBounds = this.getBounds();
-
-        if (this.isAppear && bulletBounds.intersects(donkey.getBounds())) {
+        if (this.isAppear() && this.intersects(donkey)) {
             donkey.reduceHealth(DAMAGE_TO_DONKEY);
             disappear();
         }
@@ -88,22 +64,22 @@ public class Bullet extends Entity implements AutomatedMovable {
 
 
     /**
-     * Checks for and handles collisions with any Monkey.
+     * Checks for and handles collisions with any live Monkey near the bullet.
      * Destroys both the bullet and the monkey on collision.
      *
-     * @param monkeys The list of monkeys to check
+     * @param monkeys The grid of live monkeys to check
      * @return True if a monkey was hit, false otherwise
      */
-    public boolean collideWithMonkeys(ArrayList<Monkey> monkeys) {
-        Rectangle bulletBounds = this.getBounds();
-
-        for (Monkey monkey : monkeys) {
-            Rectangle monkeyBounds = monkey.getBounds();
-            if (this.isAppear && bulletBounds.intersects(monkeyBounds)) {
-                monkey.destroy();
-                disappear();
-                return true;
-            }
+    public boolean collideWithMonkeys(SpatialGrid<Monkey> monkeys) {
+        if (!this.isAppear()) {
+            return false;
+        }
+        Monkey monkey = monkeys.findFirst(this);
+        if (monkey != null) {
+            monkey.destroy();
+            monkeys.remove(monkey);
+            disappear();
+            return true;
         }
         return false;
     }
@@ -112,16 +88,11 @@ public class Bullet extends Entity implements AutomatedMovable {
     /**
      * Checks whether the bullet intersects with any platform and destroys it on contact.
      *
-     * @param platforms The list of platforms to check
+     * @param platforms The index of platforms to check
      */
-    private void checkPlatformCollisions(ArrayList<Platform> platforms) {
-        Rectangle bulletBounds = this.getBounds();
-
-        for (Platform platform : platforms) {
-            Rectangle platformBounds = platform.getBounds();
-            if (this.isAppear && bulletBounds.intersects(platformBounds)) {
-                disappear();
-            }
+    private void checkPlatformCollisions(PlatformIndex platforms) {
+        if (this.isAppear() && platforms.findIntersecting(this) != null) {
+            disappear();
         }
     }
 
@@ -141,12 +112,4 @@ public class Bullet extends Entity implements AutomatedMovable {
             disappear();
         }
     }
-
-
-    /**
-     * Marks the bullet as spent so it is no longer updated or drawn.
-     */
-    private void disappear() {
-        isAppear = false;
-    }
 }
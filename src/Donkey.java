@@ -1,5 +1,3 @@
-import bagel.*;
-
 /**
  * This class represents the enemy Donkey Kong.
  *
@@ -8,14 +6,36 @@ import bagel.*;
  */
 public class Donkey extends GravityApplyingEntity {
 
-    private static final Image DONKEY_IMG = new Image("res/donkey_kong.png");
+    private static final Sprite DONKEY_IMG = Assets.sprite("res/donkey_kong.png");
     private static final double DONKEY_GRAVITY = 0.4;
 
     private int health = 5;
 
 
-    public Donkey(double x, double y) {
-        super(x, y, DONKEY_IMG, DONKEY_GRAVITY);
+    public Donkey(EntityStore store, double x, double y) {
+        super(store, x, y, DONKEY_IMG, DONKEY_GRAVITY);
+    }
+
+    /**
+     * Writes Donkey's movement state and health.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeInt(health);
+    }
+
+    /**
+     * Restores the state written by saveState.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        this.health = in.readInt();
     }
 
     /**
@@ -1,59 +1,160 @@
-import bagel.*;
-import bagel.util.Point;
-import bagel.util.Rectangle;
-
 /**
  * The base class for all game entities that support rendering.
  *
- * Each Entity has a position, an image, and ability to generate its
- * bounding box for collision checking, and to be drawn.
+ * Each Entity has a position, an image, and a bounding box for collision checking,
+ * and can be drawn.
+ *
+ * The position is kept in an EntityStore slot, so entities created by a level can
+ * share one store and keep their state packed together. Entities created without a
+ * store get a store of their own.
+ *
+ * The bounding box is cached as primitive edges and only recomputed after the
+ * position or image has changed, so collision checks never allocate.
  *
- * Subclasses override behaviours such as draw() and getBounds()
- * to allow specific rendering and collision checking.
+ * Subclasses override behaviours such as draw(RenderBuffer) to allow specific rendering.
  */
 public abstract class Entity {
 
-    // Entities' instance variables for image and position:
-    private final Image entityImage;
-    private Point position;
+    // Entities' image, and the store slot holding the rest of their state
+    private Sprite entityImage;
+    private final EntityStore store;
+    private final int slot;
 
+    // Cached bounding box edges, recomputed lazily when boundsDirty is set
+    private double boundsLeft;
+    private double boundsTop;
+    private double boundsRight;
+    private double boundsBottom;
+    private boolean boundsDirty = true;
 
-    public Entity(double x, double y, Image entityImage) {
-        this.position = new Point(x, y);
+
+    public Entity(EntityStore store, double x, double y, Sprite entityImage) {
+        this.store = store;
+        this.slot = store.add(x, y);
         this.entityImage = entityImage;
     }
 
+    public Entity(double x, double y, Sprite entityImage) {
+        this(new EntityStore(1), x, y, entityImage);
+    }
+
     /**
-     * Draws the entities' image from the centre at its position.
+     * Adds a command to draw the entities' image from the centre at its position,
+     * interpolated between the last two simulation ticks.
+     *
+     * @param buffer The frame's draw commands
      */
-    public void draw() {
-        this.entityImage.draw(this.getPosX(), this.getPosY());
+    public void draw(RenderBuffer buffer) {
+        this.drawImage(buffer, this.entityImage);
     }
 
     /**
-     * Gets bounding rectangle box for collision checks.
+     * Adds a command to draw an image centred on the entity, moving from where the
+     * entity was at the start of the current tick to where it is now.
+     *
+     * @param buffer The frame's draw commands
+     * @param image The image to draw
      */
-    protected Rectangle getBounds() {
-        return this.entityImage.getBoundingBoxAt(this.position);
+    protected void drawImage(RenderBuffer buffer, Sprite image) {
+        buffer.drawMovingSprite(image, this.store.tickStartX(slot), this.store.tickStartY(slot),
+                this.store.x[slot], this.store.y[slot]);
     }
 
     /**
-     * Returns half the height of the entity’s image.
+     * Writes the entity's changing state, so it can later be restored by loadState.
+     * Subclasses with more state write theirs after calling this.
      *
-     * @param image The image to evaluate
-     * @return Half of the image’s height
+     * @param out Where to write the state
      */
-    protected double halfImageHeight(Image image) {
-        return image.getHeight() / 2.0;
+    public void saveState(StateWriter out) {
+        out.writeDouble(getPosX());
+        out.writeDouble(getPosY());
+    }
+
+    /**
+     * Restores state written by saveState, reading it in the same order.
+     * The entity is drawn at the restored position until the next tick.
+     *
+     * @param in Where to read the state from
+     */
+    public void loadState(StateReader in) {
+        double x = in.readDouble();
+        double y = in.readDouble();
+        setPos(x, y);
+        store.snapToCurrentPosition(slot);
+    }
+
+    /**
+     * Checks whether this entity's bounding box intersects another's.
+     * Boxes that only touch at an edge count as intersecting.
+     *
+     * @param other The entity to check against
+     * @return true if the bounding boxes intersect
+     */
+    public boolean intersects(Entity other) {
+        return !(other.getLeft() > this.getRight() || other.getRight() < this.getLeft()
+                || other.getTop() > this.getBottom() || other.getBottom() < this.getTop());
+    }
+
+    /**
+     * Checks whether a point lies inside (or on the edge of) this entity's bounding box.
+     *
+     * @param x The x-coordinate of the point
+     * @param y The y-coordinate of the point
+     * @return true if the point is within the bounding box
+     */
+    public boolean containsPoint(double x, double y) {
+        return x >= getLeft() && x <= getRight() && y >= getTop() && y <= getBottom();
+    }
+
+    /**
+     * Gets the left edge of the bounding box.
+     *
+     * @return The left edge x-coordinate
+     */
+    public double getLeft() {
+        refreshBounds();
+        return this.boundsLeft;
+    }
+
+    /**
+     * Gets the right edge of the bounding box.
+     *
+     * @return The right edge x-coordinate
+     */
+    public double getRight() {
+        refreshBounds();
+        return this.boundsRight;
+    }
+
+    /**
+     * Gets the top edge of the bounding box.
+     *
+     * @return The top edge y-coordinate
+     */
+    public double getTop() {
+        refreshBounds();
+        return this.boundsTop;
     }
 
     /**
-     * Returns the current position of the entity.
+     * Gets the bottom edge of the bounding box.
      *
-     * @return The position as a Point
+     * @return The bottom edge y-coordinate
      */
-    protected Point getPos() {
-        return this.position;
+    public double getBottom() {
+        refreshBounds();
+        return this.boundsBottom;
+    }
+
+    /**
+     * Returns half the height of the entity’s image.
+     *
+     * @param image The image to evaluate
+     * @return Half of the image’s height
+     */
+    protected double halfImageHeight(Sprite image) {
+        return image.getHeight() / 2.0;
     }
 
     /**
@@ -62,7 +163,7 @@ public abstract class Entity {
      * @return The x-coordinate
      */
     protected double getPosX() {
-        return this.position.x;
+        return this.store.x[slot];
     }
 
     /**
@@ -71,7 +172,7 @@ public abstract class Entity {
      * @return The y-coordinate
      */
     protected double getPosY() {
-        return this.position.y;
+        return this.store.y[slot];
     }
 
 
@@ -81,7 +182,8 @@ public abstract class Entity {
      * @param x The new x-coordinate
      */
     protected void setPosX(double x) {
-        this.position = new Point(x, this.position.y);
+        this.store.x[slot] = x;
+        this.boundsDirty = true;
     }
 
     /**
@@ -90,7 +192,47 @@ public abstract class Entity {
      * @param y The new y-coordinate
      */
     protected void setPosY(double y) {
-        this.position = new Point(this.position.x, y);
+        this.store.y[slot] = y;
+        this.boundsDirty = true;
+    }
+
+
+    /**
+     * Sets both coordinates of the entity's position.
+     *
+     * @param x The new x-coordinate
+     * @param y The new y-coordinate
+     */
+    protected void setPos(double x, double y) {
+        this.store.x[slot] = x;
+        this.store.y[slot] = y;
+        this.boundsDirty = true;
+    }
+
+    /**
+     * Marks the cached bounding box as out of date. Must be called after the position
+     * has been changed directly in the entity's store.
+     */
+    protected void positionChanged() {
+        this.boundsDirty = true;
+    }
+
+    /**
+     * Returns the store holding the entity's state.
+     *
+     * @return The entity's store
+     */
+    protected EntityStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Returns the slot of the entity's state in its store.
+     *
+     * @return The entity's slot
+     */
+    protected int getSlot() {
+        return this.slot;
     }
 
     /**
@@ -98,7 +240,33 @@ public abstract class Entity {
      *
      * @return The entity's image
      */
-    protected Image getEntityImage() {
+    protected Sprite getEntityImage() {
         return this.entityImage;
     }
+
+    /**
+     * Changes the image associated with the entity, which also sets its bounds.
+     *
+     * @param image The new image
+     */
+    protected void setEntityImage(Sprite image) {
+        if (this.entityImage != image) {
+            this.entityImage = image;
+            this.boundsDirty = true;
+        }
+    }
+
+    /**
+     * Recomputes the cached bounding box if the position or image changed since the last time.
+     * The box is centred on the position, like Bagel's Image.getBoundingBoxAt.
+     */
+    private void refreshBounds() {
+        if (this.boundsDirty) {
+            this.boundsLeft = getPosX() - this.entityImage.getWidth() / 2.0;
+            this.boundsTop = getPosY() - this.entityImage.getHeight() / 2.0;
+            this.boundsRight = this.boundsLeft + this.entityImage.getWidth();
+            this.boundsBottom = this.boundsTop + this.entityImage.getHeight();
+            this.boundsDirty = false;
+        }
+    }
 }
@@ -0,0 +1,284 @@
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for the state of many entities.
+ *
+ * Each entity added to the store gets a slot, and its position, vertical velocity,
+ * gravity, distance travelled, alive flag, facing direction and resting flag are
+ * kept in primitive arrays at that index rather than in the entity object itself.
+ * Entities sharing a store keep their state packed together, so loops over a level's
+ * barrels, monkeys and projectiles walk a few contiguous arrays instead of chasing
+ * objects over the heap.
+ *
+ * Slots are never freed; an entity keeps its slot for as long as the store lives,
+ * so reused entities (such as pooled projectiles) keep theirs too.
+ *
+ * The store also remembers every position at the start of the current simulation
+ * tick, so rendering can interpolate between the last two ticks when the screen
+ * refreshes at a different rate from the simulation.
+ */
+public class EntityStore {
+
+    // Number of slots a store starts with before it needs to grow
+    public static final int DEFAULT_CAPACITY = 16;
+
+    // Per-slot state, read and written directly by the entities viewing each slot.
+    // The arrays are replaced when the store grows, so they must not be cached.
+    double[] x;
+    double[] y;
+    double[] velocityY;
+    double[] gravity;
+    double[] distanceTravelled;
+    private long[] alive;
+    private long[] facingRight;
+    private long[] resting;
+
+    // Position and vertical velocity at the start of the current gravity step
+    double[] previousY;
+    double[] previousVelocityY;
+
+    // Positions at the start of the current tick, which frames are drawn moving away from
+    private double[] tickStartX;
+    private double[] tickStartY;
+
+    private int size = 0;
+
+
+    public EntityStore(int capacity) {
+        int slots = Math.max(1, capacity);
+        this.x = new double[slots];
+        this.y = new double[slots];
+        this.velocityY = new double[slots];
+        this.gravity = new double[slots];
+        this.distanceTravelled = new double[slots];
+        this.alive = new long[wordsFor(slots)];
+        this.facingRight = new long[wordsFor(slots)];
+        this.resting = new long[wordsFor(slots)];
+        this.previousY = new double[slots];
+        this.previousVelocityY = new double[slots];
+        this.tickStartX = new double[slots];
+        this.tickStartY = new double[slots];
+    }
+
+    /**
+     * Creates a store with the default capacity.
+     */
+    public EntityStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Adds an entity at the given position, alive and facing left with no velocity or gravity.
+     *
+     * @param posX The initial x-coordinate
+     * @param posY The initial y-coordinate
+     * @return The slot the entity's state is kept in
+     */
+    public int add(double posX, double posY) {
+        if (size == x.length) {
+            grow();
+        }
+        int slot = size++;
+        x[slot] = posX;
+        y[slot] = posY;
+        tickStartX[slot] = posX;
+        tickStartY[slot] = posY;
+        setAlive(slot, true);
+        return slot;
+    }
+
+
+    /**
+     * Makes room for at least the given number of slots in total, so that adding
+     * many entities at once grows the arrays only once.
+     *
+     * @param capacity The number of slots needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > x.length) {
+            resize(Math.max(capacity, x.length * 2));
+        }
+    }
+
+
+    /**
+     * Returns the number of slots in use.
+     *
+     * @return The number of entities added to the store
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Checks whether the entity in the given slot is alive.
+     *
+     * @param slot The slot to check
+     * @return true if the entity is alive
+     */
+    public boolean isAlive(int slot) {
+        return getBit(alive, slot);
+    }
+
+    /**
+     * Marks the entity in the given slot as alive or destroyed.
+     *
+     * @param slot The slot to change
+     * @param value true for alive, false for destroyed
+     */
+    public void setAlive(int slot, boolean value) {
+        setBit(alive, slot, value);
+    }
+
+
+    /**
+     * Checks whether the entity in the given slot is facing (or moving) right.
+     *
+     * @param slot The slot to check
+     * @return true if facing right, false if facing left
+     */
+    public boolean isFacingRight(int slot) {
+        return getBit(facingRight, slot);
+    }
+
+    /**
+     * Sets the direction the entity in the given slot is facing (or moving).
+     *
+     * @param slot The slot to change
+     * @param value true for right, false for left
+     */
+    public void setFacingRight(int slot, boolean value) {
+        setBit(facingRight, slot, value);
+    }
+
+
+    /**
+     * Checks whether the entity in the given slot has come to rest and is no longer
+     * affected by gravity.
+     *
+     * @param slot The slot to check
+     * @return true if the entity is resting
+     */
+    public boolean isResting(int slot) {
+        return getBit(resting, slot);
+    }
+
+    /**
+     * Marks the entity in the given slot as resting or falling.
+     *
+     * @param slot The slot to change
+     * @param value true for resting, false for falling
+     */
+    public void setResting(int slot, boolean value) {
+        setBit(resting, slot, value);
+    }
+
+
+    /**
+     * Returns a word of flags, one per slot from the given slot onwards, set for the
+     * entities gravity should be applied to: those that are alive and not resting.
+     * Bit k of the result is for slot (slot + k); slots past the end of a 64-slot
+     * block are not included.
+     *
+     * @param slot The first slot of the word
+     * @return The flags of the falling entities from that slot
+     */
+    long fallingBits(int slot) {
+        int word = slot >>> 6;
+        return (alive[word] & ~resting[word]) >>> (slot & 63);
+    }
+
+
+    /**
+     * Remembers every position as the start of a new simulation tick.
+     * Called once at the beginning of each tick, before anything moves.
+     */
+    public void beginTick() {
+        System.arraycopy(x, 0, tickStartX, 0, size);
+        System.arraycopy(y, 0, tickStartY, 0, size);
+    }
+
+    /**
+     * Makes the entity in the given slot render at its current position until the
+     * next tick, for entities placed somewhere new rather than moved there.
+     *
+     * @param slot The slot to change
+     */
+    public void snapToCurrentPosition(int slot) {
+        tickStartX[slot] = x[slot];
+        tickStartY[slot] = y[slot];
+    }
+
+
+    /**
+     * Gets the x-coordinate the entity in the given slot had at the start of the current tick.
+     *
+     * @param slot The slot to read
+     * @return The x-coordinate before the tick moved it
+     */
+    public double tickStartX(int slot) {
+        return tickStartX[slot];
+    }
+
+    /**
+     * Gets the y-coordinate the entity in the given slot had at the start of the current tick.
+     *
+     * @param slot The slot to read
+     * @return The y-coordinate before the tick moved it
+     */
+    public double tickStartY(int slot) {
+        return tickStartY[slot];
+    }
+
+
+    /**
+     * Counts the alive entities in the store.
+     *
+     * @return The number of slots marked alive
+     */
+    public int countAlive() {
+        int count = 0;
+        for (long word : alive) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+
+    private void grow() {
+        resize(x.length * 2);
+    }
+
+    private void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        gravity = Arrays.copyOf(gravity, capacity);
+        distanceTravelled = Arrays.copyOf(distanceTravelled, capacity);
+        alive = Arrays.copyOf(alive, wordsFor(capacity));
+        facingRight = Arrays.copyOf(facingRight, wordsFor(capacity));
+        resting = Arrays.copyOf(resting, wordsFor(capacity));
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousVelocityY = Arrays.copyOf(previousVelocityY, capacity);
+        tickStartX = Arrays.copyOf(tickStartX, capacity);
+        tickStartY = Arrays.copyOf(tickStartY, capacity);
+    }
+
+    private static int wordsFor(int slots) {
+        return (slots + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static boolean getBit(long[] bits, int slot) {
+        return (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private static void setBit(long[] bits, int slot, boolean value) {
+        if (value) {
+            bits[slot >>> 6] |= 1L << slot;
+        } else {
+            bits[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+}
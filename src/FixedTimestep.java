@@ -0,0 +1,138 @@
+/**
+ * Decides how many fixed-length simulation ticks the simulation thread runs each
+ * time it wakes up, before it renders a frame and publishes it to the window.
+ *
+ * The game logic always advances in ticks of exactly 1/60 of a second, whatever the
+ * refresh rate of the screen. Real time elapsed between wake-ups is added to an
+ * accumulator and spent in whole ticks; what is left over says how far the clock is
+ * towards the next tick, so the thread knows how long to sleep until it is due. Game
+ * time therefore follows the wall clock on fast and slow machines alike, while
+ * physics, scoring and the level timer stay deterministic.
+ *
+ * When the simulation falls behind, several ticks run back to back before the next
+ * frame is rendered, so the frames in between are skipped rather than game time
+ * slowing down. At most a set number of ticks run per frame; beyond that the game
+ * does slow down, so a machine that cannot even keep up with the simulation does not
+ * fall further and further behind. Counters record how many frames were rendered and
+ * skipped and how many ticks were dropped.
+ */
+public class FixedTimestep {
+
+    // Simulation ticks per second of game time
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // Longest gap between frames carried into the simulation. A longer stall (such as
+    // the window being dragged) pauses the game rather than fast-forwarding through it.
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private final int maxTicksPerFrame;
+
+    private long lastFrameTime;
+    private boolean started = false;
+    private long accumulatedNanos = 0;
+
+    // Counters since the clock started
+    private long renderedFrames = 0;
+    private long skippedFrames = 0;
+    private long droppedTicks = 0;
+
+
+    /**
+     * Creates a timestep that runs at most the given number of ticks per rendered frame.
+     *
+     * @param maxTicksPerFrame The most ticks to run before rendering; 1 turns frame skipping off
+     */
+    public FixedTimestep(int maxTicksPerFrame) {
+        if (maxTicksPerFrame < 1) {
+            throw new IllegalArgumentException("maxTicksPerFrame must be at least 1: " + maxTicksPerFrame);
+        }
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+
+    /**
+     * Adds the time since the previous call and works out how many ticks are due.
+     * The first call only starts the clock.
+     *
+     * @param now The current time from System.nanoTime()
+     * @return The number of ticks to run before rendering the next frame, 0 if none is due
+     */
+    public int advance(long now) {
+        if (!started) {
+            started = true;
+            lastFrameTime = now;
+            return 0;
+        }
+        long elapsed = Math.min(now - lastFrameTime, MAX_FRAME_NANOS);
+        lastFrameTime = now;
+
+        accumulatedNanos += Math.max(elapsed, 0);
+        long dueTicks = accumulatedNanos / TICK_NANOS;
+        accumulatedNanos -= dueTicks * TICK_NANOS;
+
+        // Past the limit, let game time slow down rather than skip more frames
+        int ticks = (int) Math.min(dueTicks, maxTicksPerFrame);
+        droppedTicks += dueTicks - ticks;
+
+        // Every tick after the first in a frame is one frame that is never rendered
+        skippedFrames += Math.max(ticks - 1, 0);
+        return ticks;
+    }
+
+    /**
+     * Counts a frame rendered after the ticks returned by advance have run.
+     */
+    public void frameRendered() {
+        renderedFrames++;
+    }
+
+
+    /**
+     * Gets the number of frames rendered since the clock started.
+     *
+     * @return The number of rendered frames
+     */
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    /**
+     * Gets the number of ticks whose frame was skipped, because another tick ran
+     * before anything was rendered.
+     *
+     * @return The number of skipped frames
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * Gets the number of ticks that were due but not run because a frame had already
+     * run the maximum number of ticks, i.e. how far game time has fallen behind.
+     *
+     * @return The number of dropped ticks
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+
+    /**
+     * Prints how many frames were rendered and skipped and how many ticks were dropped.
+     */
+    public void printSummary() {
+        System.out.printf("timestep: rendered frames=%d skipped frames=%d dropped ticks=%d%n",
+                renderedFrames, skippedFrames, droppedTicks);
+    }
+
+
+    /**
+     * Gets how far the clock is between the last tick and the next one.
+     *
+     * @return A value from 0 (just after a tick) up to, but not including, 1
+     */
+    public double getAlpha() {
+        return (double) accumulatedNanos / TICK_NANOS;
+    }
+}
@@ -0,0 +1,193 @@
+import bagel.*;
+
+/**
+ * The keyboard state the game logic reads during one frame.
+ *
+ * Only the keys the game reacts to are tracked, each as one bit of a "held" mask
+ * (for isDown checks) and a "pressed" mask (for wasPressed checks). The state can be
+ * captured from Bagel's input while a window is open, or set directly by a synthetic
+ * input source when the game runs headless.
+ */
+public class FrameInput {
+
+    // The keys read by Mario and the screens, in bit order
+    private static final Keys[] TRACKED_KEYS = {
+            Keys.LEFT, Keys.RIGHT, Keys.UP, Keys.DOWN, Keys.SPACE, Keys.S, Keys.ENTER, Keys.NUM_2
+    };
+
+    // The part of the key state the game actually reads, as recorded in replays:
+    // LEFT, RIGHT, UP and DOWN are only ever checked as held, and SPACE, S, ENTER
+    // and NUM_2 only as pressed
+    private static final int RECORDED_HELD_BITS = 0x0F;
+    private static final int RECORDED_PRESSED_BITS = 0xF0;
+
+    private int heldMask = 0;
+    private int pressedMask = 0;
+
+
+    /**
+     * Copies the state of all tracked keys from Bagel's input for this frame.
+     *
+     * @param input The current keyboard input from the window
+     */
+    public void capture(Input input) {
+        int held = 0;
+        int pressed = 0;
+        for (int i = 0; i < TRACKED_KEYS.length; i++) {
+            if (input.isDown(TRACKED_KEYS[i])) {
+                held |= 1 << i;
+            }
+            if (input.wasPressed(TRACKED_KEYS[i])) {
+                pressed |= 1 << i;
+            }
+        }
+        this.heldMask = held;
+        this.pressedMask = pressed;
+    }
+
+    /**
+     * Forgets all key presses once a simulation tick has seen them; held keys stay held.
+     */
+    public void consumePresses() {
+        this.pressedMask = 0;
+    }
+
+    /**
+     * Releases all keys.
+     */
+    public void clear() {
+        this.heldMask = 0;
+        this.pressedMask = 0;
+    }
+
+    /**
+     * Checks whether a key is held down this frame.
+     *
+     * @param key The key to check
+     * @return true if the key is held
+     */
+    public boolean isDown(Keys key) {
+        return (heldMask & keyBit(key)) != 0;
+    }
+
+    /**
+     * Checks whether a key was pressed this frame.
+     *
+     * @param key The key to check
+     * @return true if the key was pressed
+     */
+    public boolean wasPressed(Keys key) {
+        return (pressedMask & keyBit(key)) != 0;
+    }
+
+    /**
+     * Sets whether a key is held down this frame.
+     *
+     * @param key The key to set
+     * @param down true if the key is held
+     */
+    public void setDown(Keys key, boolean down) {
+        this.heldMask = down ? (heldMask | keyBit(key)) : (heldMask & ~keyBit(key));
+    }
+
+    /**
+     * Sets whether a key was pressed this frame.
+     *
+     * @param key The key to set
+     * @param pressed true if the key was pressed
+     */
+    public void setPressed(Keys key, boolean pressed) {
+        this.pressedMask = pressed ? (pressedMask | keyBit(key)) : (pressedMask & ~keyBit(key));
+    }
+
+    /**
+     * Gets the bit mask of all held keys.
+     *
+     * @return The held key mask
+     */
+    public int getHeldMask() {
+        return heldMask;
+    }
+
+    /**
+     * Gets the bit mask of all pressed keys.
+     *
+     * @return The pressed key mask
+     */
+    public int getPressedMask() {
+        return pressedMask;
+    }
+
+    /**
+     * Replaces the whole key state with the given masks.
+     *
+     * @param heldMask The held key mask
+     * @param pressedMask The pressed key mask
+     */
+    public void setMasks(int heldMask, int pressedMask) {
+        this.heldMask = heldMask;
+        this.pressedMask = pressedMask;
+    }
+
+    /**
+     * Packs the key state the game reads into one byte: the held arrow keys in the
+     * low four bits and the pressed SPACE, S, ENTER and NUM_2 in the high four.
+     *
+     * @return The recorded key state, from 0 to 255
+     */
+    public int getRecordedState() {
+        return (heldMask & RECORDED_HELD_BITS) | (pressedMask & RECORDED_PRESSED_BITS);
+    }
+
+    /**
+     * Replaces the whole key state with one packed by getRecordedState.
+     *
+     * @param state The recorded key state
+     */
+    public void setRecordedState(int state) {
+        this.heldMask = state & RECORDED_HELD_BITS;
+        this.pressedMask = state & RECORDED_PRESSED_BITS;
+    }
+
+    /**
+     * Gets the number of keys the game tracks.
+     *
+     * @return The tracked key count
+     */
+    public static int getTrackedKeyCount() {
+        return TRACKED_KEYS.length;
+    }
+
+    /**
+     * Gets a tracked key by its bit index in the key masks.
+     *
+     * @param index The bit index, from 0
+     * @return The key
+     */
+    public static Keys getTrackedKey(int index) {
+        return TRACKED_KEYS[index];
+    }
+
+    /**
+     * Gets the bit index of a key in the key masks.
+     *
+     * @param key The key
+     * @return The bit index, or -1 if the game does not track the key
+     */
+    public static int getTrackedKeyIndex(Keys key) {
+        for (int i = 0; i < TRACKED_KEYS.length; i++) {
+            if (TRACKED_KEYS[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the bit used for a key, or 0 if the game does not track it.
+     */
+    private static int keyBit(Keys key) {
+        int index = getTrackedKeyIndex(key);
+        return (index < 0) ? 0 : 1 << index;
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Every setting of the game, read from app.properties and checked once at start-up
+ * by GameConfigLoader, so screens and levels never parse properties themselves.
+ *
+ * @param windowWidth The width of the window in pixels
+ * @param windowHeight The height of the window in pixels
+ * @param maxTicksPerFrame The most game ticks run for one drawn frame
+ * @param maxFrames The number of ticks a level lasts before time runs out
+ * @param backgroundImage The path of the background image
+ * @param hud The layout of the texts on each screen
+ * @param level1 The layout of level 1
+ * @param level2 The layout of level 2
+ */
+public record GameConfig(int windowWidth, int windowHeight, int maxTicksPerFrame, int maxFrames,
+                         String backgroundImage, HudLayout hud, LevelConfig level1, LevelConfig level2) {
+
+    /**
+     * Gets the layout of a level by its number.
+     *
+     * @param level The level number (1 or 2)
+     * @return The level's layout
+     */
+    public LevelConfig level(int level) {
+        if (level == 1) {
+            return level1;
+        } else if (level == 2) {
+            return level2;
+        }
+        throw new IllegalArgumentException("Unknown level: " + level);
+    }
+}
@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Reads the game settings from app.properties into a GameConfig.
+ *
+ * Every number, position and monkey route is parsed and checked here, once, so a
+ * mistake in the file is reported at start-up naming the setting at fault, rather
+ * than as a NumberFormatException or NullPointerException when a level is built.
+ *
+ * A level's entities may be kept in a binary LevelFile instead, named by the
+ * setting "levelFile.levelN"; its other settings are then not needed.
+ */
+public class GameConfigLoader {
+
+    public static final String DEFAULT_PATH = "res/app.properties";
+
+    private final Properties props;
+
+
+    private GameConfigLoader(Properties props) {
+        this.props = props;
+    }
+
+
+    /**
+     * Reads and checks the settings in the default app.properties file.
+     *
+     * @return The game settings
+     * @throws IllegalArgumentException If a setting is missing or invalid
+     */
+    public static GameConfig load() {
+        return load(IOUtils.readPropertiesFile(DEFAULT_PATH));
+    }
+
+    /**
+     * Reads and checks the settings in already loaded game properties.
+     *
+     * @param gameProps The game properties
+     * @return The game settings
+     * @throws IllegalArgumentException If a setting is missing or invalid
+     */
+    public static GameConfig load(Properties gameProps) {
+        return new GameConfigLoader(gameProps).readGame();
+    }
+
+
+    private GameConfig readGame() {
+        return new GameConfig(
+                readPositiveInt("window.width"),
+                readPositiveInt("window.height"),
+                readPositiveInt("window.maxTicksPerFrame"),
+                readPositiveInt("gamePlay.maxFrames"),
+                readString("backgroundImage"),
+                readHud(),
+                readLevel(1),
+                readLevel(2));
+    }
+
+    private HudLayout readHud() {
+        return new HudLayout(
+                readString("font"),
+                readPositiveInt("gamePlay.score.fontSize"),
+                new Position(readDouble("gamePlay.score.x"), readDouble("gamePlay.score.y")),
+                readPosition("gamePlay.donkeyhealth.coords"),
+                readPositiveInt("home.title.fontSize"),
+                readDouble("home.title.y"),
+                readPositiveInt("home.prompt.fontSize"),
+                readDouble("home.prompt.y"),
+                readPositiveInt("gameEnd.status.fontSize"),
+                readDouble("gameEnd.status.y"),
+                readPositiveInt("gameEnd.scores.fontSize"));
+    }
+
+    private LevelConfig readLevel(int level) {
+        String suffix = "level" + level;
+
+        // A level can instead be laid out in a binary level file, for very large levels
+        String fileKey = "levelFile." + suffix;
+        if (props.containsKey(fileKey)) {
+            try {
+                return LevelFile.read(readString(fileKey), level);
+            } catch (IOException ex) {
+                throw new IllegalArgumentException("Invalid game setting \"" + fileKey + "\": " + ex.getMessage(), ex);
+            }
+        }
+
+        List<Position> platforms = new ArrayList<>();
+        String platformsKey = "platforms." + suffix;
+        for (String platform : readString(platformsKey).split(";")) {
+            platforms.add(parsePosition(platformsKey, platform));
+        }
+
+        // Each level has exactly one hammer (see the README's assumptions)
+        if (readCount("hammer." + suffix + ".count") != 1) {
+            throw invalid("hammer." + suffix + ".count", "each level must have exactly one hammer");
+        }
+
+        List<MonkeyConfig> monkeys = new ArrayList<>();
+        readMonkeys("normalMonkey." + suffix, false, monkeys);
+        readMonkeys("intelligentMonkey." + suffix, true, monkeys);
+
+        return new LevelConfig(level,
+                readPosition("mario." + suffix),
+                readPosition("donkey." + suffix),
+                readPosition("hammer." + suffix + ".1"),
+                PositionTable.of(platforms),
+                readPositions("ladder." + suffix),
+                readPositions("barrel." + suffix),
+                readPositions("blaster." + suffix),
+                monkeys);
+    }
+
+
+    /**
+     * Reads a numbered list of positions, "prefix.1" to "prefix.n", where n is given
+     * by "prefix.count". A level without the count has none.
+     */
+    private PositionTable readPositions(String prefix) {
+        int count = readOptionalCount(prefix + ".count");
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            positions.add(readPosition(prefix + "." + i));
+        }
+        return PositionTable.of(positions);
+    }
+
+    private void readMonkeys(String prefix, boolean intelligent, List<MonkeyConfig> monkeys) {
+        int count = readOptionalCount(prefix + ".count");
+        for (int i = 1; i <= count; i++) {
+            monkeys.add(parseMonkey(prefix + "." + i, intelligent));
+        }
+    }
+
+    /**
+     * Parses a monkey written as "x,y;direction;route", where the direction is left
+     * or right and the route is a comma-separated list of segment lengths.
+     */
+    private MonkeyConfig parseMonkey(String key, boolean intelligent) {
+        String value = readString(key);
+        String[] parts = value.split(";");
+        if (parts.length != 3) {
+            throw invalid(key, "expected x,y;direction;route but was \"" + value + "\"");
+        }
+
+        Position position = parsePosition(key, parts[0]);
+
+        boolean facingRight;
+        if (parts[1].equals("right")) {
+            facingRight = true;
+        } else if (parts[1].equals("left")) {
+            facingRight = false;
+        } else {
+            throw invalid(key, "direction must be left or right but was \"" + parts[1] + "\"");
+        }
+
+        String[] segments = parts[2].split(",");
+        int[] route = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            route[i] = parseInt(key, segments[i]);
+            if (route[i] <= 0) {
+                throw invalid(key, "route segments must be positive but one was " + route[i]);
+            }
+        }
+        return new MonkeyConfig(position, facingRight, route, intelligent);
+    }
+
+
+    private String readString(String key) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing game setting \"" + key + "\"");
+        }
+        return value.trim();
+    }
+
+    private double readDouble(String key) {
+        return parseDouble(key, readString(key));
+    }
+
+    private int readPositiveInt(String key) {
+        int value = parseInt(key, readString(key));
+        if (value <= 0) {
+            throw invalid(key, "must be positive but was " + value);
+        }
+        return value;
+    }
+
+    private int readCount(String key) {
+        int value = parseInt(key, readString(key));
+        if (value < 0) {
+            throw invalid(key, "must not be negative but was " + value);
+        }
+        return value;
+    }
+
+    private int readOptionalCount(String key) {
+        return props.containsKey(key) ? readCount(key) : 0;
+    }
+
+    private Position readPosition(String key) {
+        return parsePosition(key, readString(key));
+    }
+
+    private Position parsePosition(String key, String text) {
+        String[] coords = text.split(",");
+        if (coords.length != 2) {
+            throw invalid(key, "expected a position x,y but was \"" + text + "\"");
+        }
+        return new Position(parseDouble(key, coords[0]), parseDouble(key, coords[1]));
+    }
+
+    private int parseInt(String key, String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException ex) {
+            throw invalid(key, "\"" + text + "\" is not a whole number");
+        }
+    }
+
+    private double parseDouble(String key, String text) {
+        double value;
+        try {
+            value = Double.parseDouble(text.trim());
+        } catch (NumberFormatException ex) {
+            throw invalid(key, "\"" + text + "\" is not a number");
+        }
+        if (!Double.isFinite(value)) {
+            throw invalid(key, "\"" + text + "\" is not a finite number");
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalid(String key, String problem) {
+        return new IllegalArgumentException("Invalid game setting \"" + key + "\": " + problem);
+    }
+}
@@ -1,4 +1,3 @@
-import bagel.*;
 import java.util.Properties;
 
 /**
@@ -7,37 +6,54 @@ import java.util.Properties;
  * This class controls transitions between HomeScreen, Level1, Level2, and GameOver screens.
  * Tracks global state (score, remaining time, win/lose), delegating per‐frame input processing,
  * initialising, entity updates, and rendering to current screen.
+ *
+ * Each screen is only created once. A level played again is restarted from its
+ * saved initial state, reusing all its entities, fonts and lists rather than
+ * building everything anew from the game settings. When prefetching is turned on,
+ * as it is in the windowed game, the levels are built on a background thread
+ * ahead of time, so the frame that starts a level does not have to build it.
  */
 public class GameController {
 
-    // Properties resources:
-    private final Properties GAME_PROPS;
+    // Game settings and message texts:
+    private final GameConfig CONFIG;
     private final Properties MESSAGE_PROPS;
 
     // The current game screen and game state for transition handling:
     private GameScreen currentScreen;
     private GameState currentState;
 
+    // Every screen, reused each time it is shown; the levels are created when first played
+    private final HomeScreen homeScreen;
+    private final GameOverScreen gameOverScreen;
+    private GamePlayLevel1 level1Screen;
+    private GamePlayLevel2 level2Screen;
+
+    // Builds the levels in the background, when enabled
+    private LevelPrefetcher prefetcher;
+
     private int totalScore = 0;
 
 
-    public GameController(Properties gameProps, Properties messageProps) {
-        this.GAME_PROPS = gameProps;
+    public GameController(GameConfig config, Properties messageProps) {
+        this.CONFIG = config;
         this.MESSAGE_PROPS = messageProps;
 
+        this.homeScreen = new HomeScreen(CONFIG, MESSAGE_PROPS);
+        this.gameOverScreen = new GameOverScreen(CONFIG, MESSAGE_PROPS);
         this.currentState  = GameState.HOME;
-        this.currentScreen = new HomeScreen(GAME_PROPS, MESSAGE_PROPS);
+        this.currentScreen = homeScreen;
     }
 
 
     /**
      * Updates the current game screen and handles transitions between screens.
+     * Nothing is drawn here, so the game can also be stepped without a window.
      *
-     * @param input The current mouse/keyboard input.
+     * @param input The current keyboard input.
      */
-    public void updateGame(Input input) {
+    public void updateGame(FrameInput input) {
         boolean shouldTransition = currentScreen.update(input);
-        currentScreen.showScreenText();
 
         switch (currentState) {
             case HOME:
@@ -47,10 +63,10 @@ public class GameController {
                     this.totalScore = 0;
                     GameState targetLevel = home.getTargetLevel();
                     if (targetLevel == GameState.GAME_PLAY_LEVEL1) {
-                        this.currentScreen = new GamePlayLevel1(GAME_PROPS);
+                        this.currentScreen = startLevel1();
                         this.currentState = GameState.GAME_PLAY_LEVEL1;
                     } else {
-                        this.currentScreen = new GamePlayLevel2(GAME_PROPS);
+                        this.currentScreen = startLevel2();
                         this.currentState = GameState.GAME_PLAY_LEVEL2;
                     }
                 }
@@ -62,7 +78,7 @@ public class GameController {
                 if (shouldTransition) {
                     updateScore(level1);
                     if (level1.isGameWon()) {
-                        this.currentScreen = new GamePlayLevel2(GAME_PROPS);
+                        this.currentScreen = startLevel2();
                         this.currentState = GameState.GAME_PLAY_LEVEL2;
                     } else {
                         showGameOver(false);
@@ -84,7 +100,7 @@ public class GameController {
             case GAME_OVER:
                 // Switch to Home when GameOver screen's update (user) requires
                 if (shouldTransition) {
-                    this.currentScreen = new HomeScreen(GAME_PROPS, MESSAGE_PROPS);
+                    this.currentScreen = homeScreen;
                     this.currentState = GameState.HOME;
                     this.totalScore = 0;
                 }
@@ -93,17 +109,148 @@ public class GameController {
     }
 
 
+    /**
+     * Renders the current game screen.
+     *
+     * @param buffer The frame's draw commands
+     */
+    public void render(RenderBuffer buffer) {
+        currentScreen.render(buffer);
+    }
+
+
+    /**
+     * Writes the whole state of the game between two updates: the current state,
+     * the total score and the state of the current screen.
+     *
+     * @param out Where to write the state
+     */
+    public void saveState(StateWriter out) {
+        out.writeInt(currentState.ordinal());
+        out.writeInt(totalScore);
+        currentScreen.saveState(out);
+    }
+
+
+    /**
+     * Restores the state written by saveState, switching to the screen of the saved
+     * kind and restoring its state.
+     *
+     * @param in Where to read the state from
+     */
+    public void loadState(StateReader in) {
+        this.currentState = GameState.values()[in.readInt()];
+        this.totalScore = in.readInt();
+        switch (currentState) {
+            case HOME:
+                this.currentScreen = homeScreen;
+                break;
+            case GAME_PLAY_LEVEL1:
+                this.currentScreen = (level1Screen != null) ? level1Screen : startLevel1();
+                break;
+            case GAME_PLAY_LEVEL2:
+                this.currentScreen = (level2Screen != null) ? level2Screen : startLevel2();
+                break;
+            case GAME_OVER:
+                this.currentScreen = gameOverScreen;
+                break;
+        }
+        currentScreen.loadState(in);
+    }
+
+
+    /**
+     * Returns the screen currently being shown.
+     *
+     * @return The current game screen.
+     */
+    public GameScreen getCurrentScreen() {
+        return currentScreen;
+    }
+
+
+    /**
+     * Returns the state the game is currently in.
+     *
+     * @return The current game state.
+     */
+    public GameState getCurrentState() {
+        return currentState;
+    }
+
+
+    /**
+     * Returns the total score carried across levels.
+     *
+     * @return The total score.
+     */
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+
     /**
      * Helps to create, transition to and render the GameOver screen with score and messages.
      *
      * @param gameWon decide whether to show win or lose message.
      */
     private void showGameOver(boolean gameWon) {
-        // Initialise a new GameOver screen with win/lose status and total score
-        GameOverScreen gameOver = new GameOverScreen(GAME_PROPS, MESSAGE_PROPS);
-        gameOver.setIsWon(gameWon);
-        gameOver.setFinalScore(totalScore);
-        this.currentScreen = gameOver;
+        // Show the GameOver screen with win/lose status and total score
+        gameOverScreen.setIsWon(gameWon);
+        gameOverScreen.setFinalScore(totalScore);
+        this.currentScreen = gameOverScreen;
+    }
+
+
+    /**
+     * Starts building both levels on a background thread, so starting a level for
+     * the first time does not have to build it. Levels already created are kept.
+     */
+    public void prefetchLevels() {
+        if (prefetcher == null && level1Screen == null && level2Screen == null) {
+            this.prefetcher = new LevelPrefetcher(CONFIG);
+        }
+    }
+
+
+    /**
+     * Gets the total time spent waiting for a prefetched level that had not finished
+     * building when it was started.
+     *
+     * @return The waiting time in nanoseconds, 0 if no level was waited for
+     */
+    public long getLevelWaitNanos() {
+        return (prefetcher != null) ? prefetcher.getWaitNanos() : 0;
+    }
+
+
+    /**
+     * Gets Level 1 ready to play from the start, creating it the first time.
+     *
+     * @return Level 1 in its initial state
+     */
+    private GamePlayLevel1 startLevel1() {
+        if (level1Screen == null) {
+            this.level1Screen = (prefetcher != null) ? prefetcher.takeLevel1() : new GamePlayLevel1(CONFIG);
+        } else {
+            level1Screen.restart();
+        }
+        return level1Screen;
+    }
+
+
+    /**
+     * Gets Level 2 ready to play from the start, creating it the first time.
+     *
+     * @return Level 2 in its initial state
+     */
+    private GamePlayLevel2 startLevel2() {
+        if (level2Screen == null) {
+            this.level2Screen = (prefetcher != null) ? prefetcher.takeLevel2() : new GamePlayLevel2(CONFIG);
+        } else {
+            level2Screen.restart();
+        }
+        return level2Screen;
     }
 
 
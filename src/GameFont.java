@@ -0,0 +1,79 @@
+import bagel.*;
+
+/**
+ * A font resource used by the game screens.
+ *
+ * The underlying Bagel font is only created when the game window asks for it (see
+ * Assets.createGraphics) or the first time text is drawn or measured, so screens can
+ * be constructed and updated without a window.
+ *
+ * Fonts are shared; get them from Assets rather than creating them directly.
+ */
+public class GameFont {
+
+    private final String path;
+    private final int size;
+
+    // Created lazily by the rendering thread on first use
+    private Font font;
+
+
+    public GameFont(String path, int size) {
+        this.path = path;
+        this.size = size;
+    }
+
+    /**
+     * Draws the string with its bottom-left corner at the given position.
+     *
+     * @param text The text to draw
+     * @param x The x-coordinate of the text
+     * @param y The y-coordinate of the text
+     */
+    public void drawString(String text, double x, double y) {
+        getFont().drawString(text, x, y);
+    }
+
+    /**
+     * Measures the width of the string when drawn with this font.
+     *
+     * @param text The text to measure
+     * @return The width of the text in pixels
+     */
+    public double getWidth(String text) {
+        return getFont().getWidth(text);
+    }
+
+    /**
+     * Creates the Bagel font now, if it has not been created yet, rather than on
+     * first use. Must be called on the thread that owns the window.
+     */
+    public void createFont() {
+        if (this.font == null) {
+            this.font = new Font(this.path, this.size);
+        }
+    }
+
+    /**
+     * Gets the file path the font is loaded from.
+     *
+     * @return The font path
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Gets the size of the font.
+     *
+     * @return The font size
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    private Font getFont() {
+        createFont();
+        return this.font;
+    }
+}
@@ -8,8 +8,6 @@ import java.util.Properties;
  */
 public class GameOverScreen implements GameScreen {
 
-    private final Properties GAME_PROPS;
-
     // Loads GameOver screen's texts
     private final String GAME_WON_TXT;
     private final String GAME_LOST_TXT;
@@ -17,8 +15,8 @@ public class GameOverScreen implements GameScreen {
     private final String SCORE_MESSAGE;
 
     // Fonts for displaying win/loss message and final score
-    private final Font STATUS_FONT;
-    private final Font SCORE_FONT;
+    private final GameFont STATUS_FONT;
+    private final GameFont SCORE_FONT;
 
     // Vertical position for the win/loss message
     private final double STATUS_Y;
@@ -27,6 +25,8 @@ public class GameOverScreen implements GameScreen {
 
     // The final score from this play through
     private int finalScore = 0;
+    // The final score text, only rebuilt when the score changes
+    private String finalScoreText;
 
     // Indicates whether the player won or lost
     private boolean gameWon;
@@ -35,58 +35,78 @@ public class GameOverScreen implements GameScreen {
     /**
      * Constructs the GameEndScreen, loading required resources such as images, fonts, and text.
      *
-     * @param gameProps Properties file containing file paths and layout configurations.
+     * @param config The game settings, holding the font details and text layout.
      * @param messageProps  Properties file containing game messages and prompts.
      */
-    public GameOverScreen(Properties gameProps, Properties messageProps) {
-        this.GAME_PROPS = gameProps;
-
-        // Dynamically load texts, fonts and positions from the properties files
+    public GameOverScreen(GameConfig config, Properties messageProps) {
+        // Dynamically load texts from the properties file
         this.GAME_WON_TXT = messageProps.getProperty("gameEnd.won");
         this.GAME_LOST_TXT = messageProps.getProperty("gameEnd.lost");
         this.CONTINUE_GAME_TXT = messageProps.getProperty("gameEnd.continue");
         this.SCORE_MESSAGE = messageProps.getProperty("gameEnd.score");
 
-        String font = gameProps.getProperty("font");
-        this.STATUS_FONT = new Font(font, getInt("gameEnd.status.fontSize"));
-        this.SCORE_FONT = new Font(font, getInt("gameEnd.scores.fontSize"));
+        HudLayout hud = config.hud();
+        this.STATUS_FONT = Assets.font(hud.font(), hud.statusFontSize());
+        this.SCORE_FONT = Assets.font(hud.font(), hud.finalScoreFontSize());
 
-        this.STATUS_Y = getDouble("gameEnd.status.y");
+        this.STATUS_Y = hud.statusY();
+        this.finalScoreText = SCORE_MESSAGE + " " + finalScore;
     }
 
 
     /**
-     * Renders the game end screen, including the final score, win/loss message,
-     * and a prompt for the player to continue. Also checks for user input to exit the screen.
+     * Checks for user input to exit the game end screen.
      *
      * @param input The current user input.
      * @return {@code true} if the player presses SPACE to continue, {@code false} otherwise.
      */
     @Override
-    public boolean update(Input input) {
-        showScreenText();
-
+    public boolean update(FrameInput input) {
         return input.wasPressed(Keys.SPACE);
     }
 
 
     /**
-     * Renders the win/loss message, final score, and a prompt to continue
-     * on the game over screen.
+     * Renders the win or loss message, the final score and the prompt to continue,
+     * centred on screen.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void showScreenText() {
+    public void showScreenText(RenderBuffer buffer) {
         // Shows the status message
         String statusText = gameWon ? GAME_WON_TXT : GAME_LOST_TXT;
-        STATUS_FONT.drawString(statusText, textCentreX(STATUS_FONT, statusText), STATUS_Y);
+        buffer.drawCentredText(STATUS_FONT, statusText, STATUS_Y);
 
         // Shows the score
-        String scoreText = SCORE_MESSAGE + " " + finalScore;
-        SCORE_FONT.drawString(scoreText, textCentreX(SCORE_FONT, scoreText), STATUS_Y + MESSAGE_DIFF_Y_1);
+        buffer.drawCentredText(SCORE_FONT, finalScoreText, STATUS_Y + MESSAGE_DIFF_Y_1);
 
         // Shows the continue prompt to go back to Home screen
-        SCORE_FONT.drawString(CONTINUE_GAME_TXT, textCentreX(SCORE_FONT, CONTINUE_GAME_TXT),
-                ShadowDonkeyKong.getScreenHeight() - MESSAGE_DIFF_Y_2);
+        buffer.drawCentredText(SCORE_FONT, CONTINUE_GAME_TXT, ShadowDonkeyKong.getScreenHeight() - MESSAGE_DIFF_Y_2);
+    }
+
+
+    /**
+     * Writes whether the game was won and the final score.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        out.writeBoolean(gameWon);
+        out.writeInt(finalScore);
+    }
+
+
+    /**
+     * Restores the state written by saveState.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        this.gameWon = in.readBoolean();
+        setFinalScore(in.readInt());
     }
 
 
@@ -107,40 +127,26 @@ public class GameOverScreen implements GameScreen {
      */
     public void setFinalScore(int score) {
         this.finalScore = score;
+        this.finalScoreText = SCORE_MESSAGE + " " + score;
     }
 
 
     /**
+     * Checks whether the player won the game that led to this screen.
      *
-     * Helper method to retrieves an integer value from the game properties file.
-     *
-     * @param infoName The key of the property
-     * @return The integer value associated with the key
-     */
-    private int getInt(String infoName) {
-        return Integer.parseInt(GAME_PROPS.getProperty(infoName));
-    }
-
-
-    /**
-     * Helper method to retrieves a double value from the game properties file.
-     *
-     * @param infoName The key of the property
-     * @return The double value associated with the key
+     * @return {@code true} if the player won, {@code false} if they lost.
      */
-    private double getDouble(String infoName) {
-        return Double.parseDouble(GAME_PROPS.getProperty(infoName));
+    public boolean isWon() {
+        return gameWon;
     }
 
 
     /**
-     * Calculates the x-coordinate required to center a given text string horizontally on screen.
+     * Gets the final score shown on the game over screen.
      *
-     * @param font The font used to measure the text width
-     * @param text The text to be centered
-     * @return The x-coordinate to center the text on screen
+     * @return The player's final score
      */
-    private double textCentreX(Font font, String text) {
-        return (ShadowDonkeyKong.getScreenWidth() - font.getWidth(text)) / 2.0;
+    public int getFinalScore() {
+        return finalScore;
     }
 }
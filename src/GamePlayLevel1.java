@@ -1,6 +1,4 @@
-import bagel.*;
 import java.util.ArrayList;
-import java.util.Properties;
 
 /**
  * This class manages the gameplay logic and state for Level 1 of the game.
@@ -16,8 +14,13 @@ public class GamePlayLevel1 extends GamePlayScreen {
 
     // All game entities for Level1
     private ArrayList<Platform> platforms = new ArrayList<>();
+    private PlatformIndex platformIndex;
     private ArrayList<Ladder> ladders = new ArrayList<>();
     private ArrayList<Barrel> barrels = new ArrayList<>();
+    private final ArrayList<Barrel> allBarrels = new ArrayList<>();
+    private final SpatialGrid<Barrel> barrelGrid = new SpatialGrid<>();
+    private final ArrayList<Barrel> nearbyBarrels = new ArrayList<>(NEARBY_CAPACITY);
+    private SlotRange barrelSlots;
     private Donkey donkey;
     private Hammer hammer;
     private Mario mario;
@@ -30,9 +33,11 @@ public class GamePlayLevel1 extends GamePlayScreen {
     private boolean gameOver = false;
 
 
-    public GamePlayLevel1(Properties gameProps) {
-        super(gameProps);
+    public GamePlayLevel1(GameConfig config) {
+        super(config);
+        this.timeRemaining = getMaxFrames() / getFramesPerSecond();
         initialiseLevel1Entities();
+        saveInitialState();
     }
 
 
@@ -43,8 +48,14 @@ public class GamePlayLevel1 extends GamePlayScreen {
         this.donkey = initialiseDonkey(LEVEL);
         this.mario = initialiseMario(LEVEL);
         this.platforms = initialisePlatforms(LEVEL);
+        this.platformIndex = new PlatformIndex(platforms);
         this.ladders = initialiseLadders(LEVEL);
         this.barrels = initialiseBarrels(LEVEL);
+        this.barrelSlots = SlotRange.of(barrels);
+        allBarrels.addAll(barrels);
+        for (Barrel barrel : barrels) {
+            barrelGrid.insert(barrel);
+        }
         this.hammer = initialiseHammer(LEVEL);
     }
 
@@ -52,27 +63,22 @@ public class GamePlayLevel1 extends GamePlayScreen {
     /**
      * Called from main for delegation, then updates to the appropriate screens.
      * The main gameplay updating logic for Level 1 to calculate time remaining, check game win/lose
-     * state, update entities, and render texts.
+     * state, and update entities. Rendering is done separately by render(RenderBuffer).
      *
      * @param input keyboard input for update logic
      */
     @Override
-    public boolean update(Input input) {
+    public boolean update(FrameInput input) {
+        // Remember where everything was, for interpolating when rendering
+        getEntityStore().beginTick();
         trackTime();
 
-        // If game still on, render static entities
-        drawPlatforms();
-        drawHammer();
-
         // Update moving entities
         updateLadders();
         updateMario(input);
         updateDonkey();
         updateBarrels();
 
-        // Then render texts for Level 1 Screen
-        showScreenText();
-
         // Requires transitioning is game has ended (lost/won)
         return gameOver || gameWon;
     }
@@ -80,14 +86,16 @@ public class GamePlayLevel1 extends GamePlayScreen {
 
     /**
      * Renders the on-screen score and remaining time text.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void showScreenText() {
+    public void showScreenText(RenderBuffer buffer) {
         // Shows current score
-        getGamePlayFont().drawString(getScoreMessage() + this.score, getScoreX(), getScoreY());
+        buffer.drawText(getGamePlayFont(), getScoreText(this.score), getScoreX(), getScoreY());
 
         // Shows current time remaining
-        getGamePlayFont().drawString(getTimeMessage() + this.timeRemaining, getScoreX(),
+        buffer.drawText(getGamePlayFont(), getTimeText(this.timeRemaining), getScoreX(),
                 getScoreY() + getTimeDisplayDiffY());
     }
 
@@ -125,6 +133,81 @@ public class GamePlayLevel1 extends GamePlayScreen {
     }
 
 
+    /**
+     * Writes the level's progress and the state of every entity that changes:
+     * score, frame count and game status, then Mario, Donkey, the hammer, the
+     * ladders and the barrels still in play.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        out.writeInt(score);
+        out.writeInt(currFrame);
+        out.writeInt(timeRemaining);
+        out.writeBoolean(gameWon);
+        out.writeBoolean(gameOver);
+        mario.saveState(out);
+        donkey.saveState(out);
+        hammer.saveState(out);
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).saveState(out);
+        }
+        saveSurvivors(out, barrels);
+    }
+
+
+    /**
+     * Restores the state written by saveState, bringing back any barrels destroyed since.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        this.score = in.readInt();
+        this.currFrame = in.readInt();
+        this.timeRemaining = in.readInt();
+        this.gameWon = in.readBoolean();
+        this.gameOver = in.readBoolean();
+        mario.loadState(in);
+        donkey.loadState(in);
+        hammer.loadState(in);
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).loadState(in);
+        }
+        loadSurvivors(in, barrels, allBarrels, barrelGrid);
+    }
+
+
+    /**
+     * Draws all entities in the level and then the screen texts.
+     *
+     * @param buffer The frame's draw commands
+     */
+    @Override
+    protected void drawLevel(RenderBuffer buffer) {
+        // Render static entities
+        drawPlatforms(buffer);
+        buffer.nextLayer();
+        drawHammer(buffer);
+        buffer.nextLayer();
+        // Render moving entities
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).draw(buffer);
+        }
+        buffer.nextLayer();
+        mario.draw(buffer);
+        buffer.nextLayer();
+        donkey.draw(buffer);
+        buffer.nextLayer();
+        for (int i = 0; i < barrels.size(); i++) {
+            barrels.get(i).draw(buffer);
+        }
+        // Then render texts for the level
+        showScreenText(buffer);
+    }
+
+
     /**
      * Tracks the remaining time based on frame count and sets game over
      * if time runs out.
@@ -146,8 +229,9 @@ public class GamePlayLevel1 extends GamePlayScreen {
      * Updates Ladders' states, applying gravity if not aligned to platforms
      */
     private void updateLadders() {
-        for (Ladder ladder : ladders) {
-            ladder.update(platforms);
+        for (int i = 0; i < ladders.size(); i++) {
+            Ladder ladder = ladders.get(i);
+            ladder.update(platformIndex);
         }
     }
 
@@ -156,9 +240,9 @@ public class GamePlayLevel1 extends GamePlayScreen {
      *
      * @param input The current keyboard input
      */
-    private void updateMario(Input input) {
+    private void updateMario(FrameInput input) {
         mario.checkHammers(hammer);
-        mario.updateLevel1(input, platforms, ladders);
+        mario.updateLevel1(input, platformIndex, ladders);
     }
 
 
@@ -167,7 +251,7 @@ public class GamePlayLevel1 extends GamePlayScreen {
      * Ends the game if a collision occurs.
      */
     private void updateDonkey() {
-        donkey.update(platforms);
+        donkey.update(platformIndex);
 
         // Handle Donkey's collision with Mario
         if (mario.marioCollidesWith(donkey)) {
@@ -182,32 +266,50 @@ public class GamePlayLevel1 extends GamePlayScreen {
      * for scoring and collisions for loss condition.
      */
     private void updateBarrels() {
-        for (Barrel barrel : barrels) {
-            // Handle being jumped over by Mario and update score
+        // Handle being jumped over by Mario and update score
+        for (int i = 0; i < barrels.size(); i++) {
+            Barrel barrel = barrels.get(i);
             if (mario.jumpedOverBarrel(barrel) && barrel.isAlive()) {
                 this.score += getBarrelCrossScore();
             }
-            // Handle collision with Mario and update score
-            if (mario.marioCollidesWith(barrel) && barrel.isAlive()) {
-                if (mario.hasHammer()) {
-                    barrel.destroy();
-                    score += getBarrelDestroyScore();
-                } else {
-                    this.gameOver = true;
-                    this.gameWon = false;
-                }
+        }
+
+        // Handle collision with Mario and update score, only looking at barrels near Mario
+        barrelGrid.query(mario, nearbyBarrels);
+        for (int i = 0; i < nearbyBarrels.size(); i++) {
+            Barrel barrel = nearbyBarrels.get(i);
+            if (mario.hasHammer()) {
+                barrel.destroy();
+                barrelGrid.remove(barrel);
+                this.score += getBarrelDestroyScore();
+            } else {
+                this.gameOver = true;
+                this.gameWon = false;
             }
-            barrel.update(platforms);
+        }
+        // Drop destroyed barrels so they are no longer updated or checked, keeping the order of the rest
+        removeDestroyed(barrels);
+
+        // Apply gravity to all falling barrels in one pass, then finish each barrel's step
+        GravityIntegrator.integrate(getEntityStore(), barrelSlots);
+        for (int i = 0; i < barrels.size(); i++) {
+            Barrel barrel = barrels.get(i);
+            if (!barrel.isAsleep()) {
+                barrel.updateAfterGravity(platformIndex);
+            }
+            barrelGrid.move(barrel);
         }
     }
 
 
     /**
      * Draws all non-moving platform entities.
+     *
+     * @param buffer The frame's draw commands
      */
-    private void drawPlatforms() {
-        for (Platform platform : platforms) {
-            platform.draw();
+    private void drawPlatforms(RenderBuffer buffer) {
+        for (int i = 0; i < platforms.size(); i++) {
+            platforms.get(i).draw(buffer);
         }
     }
 
@@ -215,8 +317,10 @@ public class GamePlayLevel1 extends GamePlayScreen {
     /**
      * Draws non-moving hammer entity.
      * (Stated in README's assumption that each level has only one hammer)
+     *
+     * @param buffer The frame's draw commands
      */
-    private void drawHammer() {
-        hammer.draw();
+    private void drawHammer(RenderBuffer buffer) {
+        hammer.draw(buffer);
     }
 }
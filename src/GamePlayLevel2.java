@@ -1,6 +1,4 @@
-import bagel.*;
 import java.util.ArrayList;
-import java.util.Properties;
 
 /**
  * Manages Level 2 GamePlay screen of the game.
@@ -18,22 +16,42 @@ public class GamePlayLevel2 extends GamePlayScreen {
     private static final String DONKEY_HEALTH_MESSAGE = "DONKEY HEALTH ";
     private static final String BULLET_MESSAGE = "BULLET ";
 
+    // Bananas and bullets created with the level, enough for those usually in flight at once
+    private static final int RESERVED_PROJECTILES = 16;
+
     // Load positions for the displayed texts of Donkey's health and Bullet count
     private final double DONKEY_HEALTH_X;
     private final double DONKEY_HEALTH_Y;
     private final double BULLET_DISPLAY_DIFF_Y = 30;
 
+    // Donkey's health and bullet count texts, shared by every level so each is only built once
+    private static final NumberText DONKEY_HEALTH_TEXT = new NumberText(DONKEY_HEALTH_MESSAGE, 100);
+    private static final NumberText BULLET_TEXT = new NumberText(BULLET_MESSAGE, 100);
+
     // All game entities for Level2:
     private ArrayList<Platform> platforms = new ArrayList<>();
+    private PlatformIndex platformIndex;
     private ArrayList<Ladder> ladders = new ArrayList<>();
     private ArrayList<Barrel> barrels = new ArrayList<>();
+    private final ArrayList<Barrel> allBarrels = new ArrayList<>();
+    private final SpatialGrid<Barrel> barrelGrid = new SpatialGrid<>();
+    private final ArrayList<Barrel> nearbyBarrels = new ArrayList<>(NEARBY_CAPACITY);
+    private SlotRange barrelSlots;
     private Hammer hammer;
     private Donkey donkey;
     private Mario mario;
     private ArrayList<Monkey> monkeys = new ArrayList<>();
-    private ArrayList<Banana> bananas = new ArrayList<>();
+    private final ArrayList<Monkey> allMonkeys = new ArrayList<>();
+    private final ProjectilePool<Banana> bananas =
+            new ProjectilePool<>(() -> new Banana(getEntityStore(), 0, 0, false));
+    private final SpatialGrid<Monkey> monkeyGrid = new SpatialGrid<>();
+    private final SpatialGrid<Banana> bananaGrid = new SpatialGrid<>();
+    private final ArrayList<Monkey> nearbyMonkeys = new ArrayList<>(NEARBY_CAPACITY);
+    private SlotRange monkeySlots;
+    private final ArrayList<Banana> nearbyBananas = new ArrayList<>(NEARBY_CAPACITY);
     private ArrayList<Blaster> blasters = new ArrayList<>();
-    private ArrayList<Bullet> bullets = new ArrayList<>();
+    private final ProjectilePool<Bullet> bullets =
+            new ProjectilePool<>(() -> new Bullet(getEntityStore(), 0, 0, false));
 
     // Level2 game states tracking variables
     private int score = 0;
@@ -43,81 +61,65 @@ public class GamePlayLevel2 extends GamePlayScreen {
     private boolean gameOver = false;
 
 
-    public GamePlayLevel2(Properties gameProps) {
-        super(gameProps);
+    public GamePlayLevel2(GameConfig config) {
+        super(config);
 
-        // Load the required data from the file
-        String[] donkeyHealthData = gameProps.getProperty("gamePlay.donkeyhealth.coords").split(",");
-        this.DONKEY_HEALTH_X = Double.parseDouble(donkeyHealthData[0]);
-        this.DONKEY_HEALTH_Y = Double.parseDouble(donkeyHealthData[1]);
+        Position donkeyHealth = config.hud().donkeyHealth();
+        this.DONKEY_HEALTH_X = donkeyHealth.x();
+        this.DONKEY_HEALTH_Y = donkeyHealth.y();
+        this.timeRemaining = getMaxFrames() / getFramesPerSecond();
 
-        initialiseLevel2Entities(gameProps);
+        initialiseLevel2Entities(config.level(LEVEL));
+        // Have projectiles ready, and room for them in the grid, so firing them during play does not allocate
+        bananas.reserve(RESERVED_PROJECTILES);
+        bullets.reserve(RESERVED_PROJECTILES);
+        bananaGrid.reserve(getEntityStore().size());
+        saveInitialState();
     }
 
 
     /**
      * Sets up and initializes all the game entities for Level 2.
      *
-     * @param gameProps The properties file containing entity setup data
+     * @param level The layout of level 2
      */
-    private void initialiseLevel2Entities(Properties gameProps) {
+    private void initialiseLevel2Entities(LevelConfig level) {
         this.mario = initialiseMario(LEVEL);
         this.donkey = initialiseDonkey(LEVEL);
         this.platforms = initialisePlatforms(LEVEL);
+        this.platformIndex = new PlatformIndex(platforms);
         this.ladders = initialiseLadders(LEVEL);
         this.barrels = initialiseBarrels(LEVEL);
-        this.hammer = initialiseHammer(LEVEL);
-        initialiseBlasters(gameProps);
-        initialiseMonkeys(gameProps);
-    }
-
-
-    /**
-     * Initialises and stores Monkey entities for Level 2.
-     */
-    private void initialiseMonkeys(Properties gameProps) {
-        // Add in Normal Monkey entities
-        int normalMonkeyCount = getInt("normalMonkey.level2.count");
-        for (int i = 1; i <= normalMonkeyCount; i++) {
-            String data = gameProps.getProperty("normalMonkey.level2." + i);
-            monkeys.add(parseMonkey(data, false));
+        this.barrelSlots = SlotRange.of(barrels);
+        allBarrels.addAll(barrels);
+        for (Barrel barrel : barrels) {
+            barrelGrid.insert(barrel);
         }
-        // Add in Intelligent Monkey entities
-        int intelliMonkeyCount = getInt("intelligentMonkey.level2.count");
-        for (int i = 1; i <= intelliMonkeyCount; i++) {
-            String data = gameProps.getProperty("intelligentMonkey.level2." + i);
-            monkeys.add(parseMonkey(data, true));
+        this.hammer = initialiseHammer(LEVEL);
+        initialiseBlasters(level);
+        initialiseMonkeys(level);
+        this.monkeySlots = SlotRange.of(monkeys);
+        allMonkeys.addAll(monkeys);
+        for (Monkey monkey : monkeys) {
+            monkeyGrid.insert(monkey);
         }
     }
 
 
     /**
-     * Help create an Intelligent or Normal Monkey entity based on data input
-     * read from app.properties file.
-     *
-     * @param data one piece of data for initialising a Monkey.
-     * @param intelligent flag if the Monkey is intelligent or not.
-     * @return an initialised Monkey entity.
+     * Initialises and stores Monkey entities for Level 2, the normal ones first.
      */
-    private Monkey parseMonkey(String data, boolean intelligent) {
-        // Get the initial position and facing direction
-        String[] allData = data.split(";");
-        String[] monkeyPos = allData[0].split(",");
-        double monkeyX = Double.parseDouble(monkeyPos[0]);
-        double monkeyY = Double.parseDouble(monkeyPos[1]);
-        boolean faceRight = allData[1].equals("right");
-
-        // Build the ArrayList<Integer> route for patrolling movement
-        String[] allRouteData = allData[2].split(",");
-        ArrayList<Integer> route = new ArrayList<>();
-        for (String routeData : allRouteData) {
-            route.add(Integer.parseInt(routeData));
-        }
-
-        if (intelligent) {
-            return new IntelligentMonkey(monkeyX, monkeyY, faceRight, route);
-        } else {
-            return new NormalMonkey(monkeyX, monkeyY, faceRight, route);
+    private void initialiseMonkeys(LevelConfig level) {
+        getEntityStore().ensureCapacity(getEntityStore().size() + level.monkeys().size());
+        for (MonkeyConfig monkey : level.monkeys()) {
+            Position position = monkey.position();
+            if (monkey.intelligent()) {
+                monkeys.add(new IntelligentMonkey(getEntityStore(), position.x(), position.y(),
+                        monkey.facingRight(), monkey.route()));
+            } else {
+                monkeys.add(new NormalMonkey(getEntityStore(), position.x(), position.y(),
+                        monkey.facingRight(), monkey.route()));
+            }
         }
     }
 
@@ -125,13 +127,10 @@ public class GamePlayLevel2 extends GamePlayScreen {
     /**
      * Initialises and stores Blaster entities for Level 2.
      */
-    private void initialiseBlasters(Properties gameProps) {
-        int blasterCount = getInt("blaster.level2.count");
-        for (int i = 1; i <= blasterCount; i ++) {
-            String[] blasterPos = gameProps.getProperty("blaster.level2." + i).split(",");
-            double blasterX = Double.parseDouble(blasterPos[0]);
-            double blasterY = Double.parseDouble(blasterPos[1]);
-            this.blasters.add(new Blaster(blasterX, blasterY));
+    private void initialiseBlasters(LevelConfig level) {
+        PositionTable positions = level.blasters();
+        for (int i = 0; i < positions.size(); i++) {
+            this.blasters.add(new Blaster(positions.x(i), positions.y(i)));
         }
     }
 
@@ -139,18 +138,15 @@ public class GamePlayLevel2 extends GamePlayScreen {
     /**
      * Called from main for delegation, then updates to the appropriate screens.
      * The main gameplay updating logic for Level 2 to calculate time remaining, check game win/lose
-     * state, update entities, and render texts.
+     * state, and update entities. Rendering is done separately by render(RenderBuffer).
      * @param input keyboard input for update logic
      */
     @Override
-    public boolean update(Input input) {
+    public boolean update(FrameInput input) {
+        // Remember where everything was, for interpolating when rendering
+        getEntityStore().beginTick();
         trackTime();
 
-        // If game still on, render static entities
-        drawPlatforms();
-        drawHammer();
-        drawBlasters();
-
         // Update moving entities
         updateLadders();
         updateMario(input);
@@ -159,9 +155,6 @@ public class GamePlayLevel2 extends GamePlayScreen {
         updateMonkeys();
         updateBullets();
 
-        // Then render texts for Level 1 Screen
-        showScreenText();
-
         // Requires transitioning is game has ended (lost/won)
         return gameOver || gameWon;
     }
@@ -170,23 +163,25 @@ public class GamePlayLevel2 extends GamePlayScreen {
     /**
      * Draws the Level 2 screen texts,
      * Including score, time remaining, donkey health, and bullet count.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void showScreenText() {
-        Font gamePlayFont = getGamePlayFont();
+    public void showScreenText(RenderBuffer buffer) {
+        GameFont gamePlayFont = getGamePlayFont();
 
         // Shows current score
-        gamePlayFont.drawString(getScoreMessage() + score, getScoreX(), getScoreY());
+        buffer.drawText(gamePlayFont, getScoreText(score), getScoreX(), getScoreY());
 
         // Shows current time remaining
-        gamePlayFont.drawString(getTimeMessage() + timeRemaining, getScoreX(),
+        buffer.drawText(gamePlayFont, getTimeText(timeRemaining), getScoreX(),
                 getScoreY() + getTimeDisplayDiffY());
 
         // Shows Donkey's health
-        gamePlayFont.drawString(DONKEY_HEALTH_MESSAGE + donkey.getHealth(), DONKEY_HEALTH_X, DONKEY_HEALTH_Y);
+        buffer.drawText(gamePlayFont, DONKEY_HEALTH_TEXT.get(donkey.getHealth()), DONKEY_HEALTH_X, DONKEY_HEALTH_Y);
 
         // Shows number of bullets left
-        gamePlayFont.drawString(BULLET_MESSAGE + mario.getBulletCount(),
+        buffer.drawText(gamePlayFont, BULLET_TEXT.get(mario.getBulletCount()),
                 DONKEY_HEALTH_X, DONKEY_HEALTH_Y + BULLET_DISPLAY_DIFF_Y);
     }
 
@@ -224,6 +219,116 @@ public class GamePlayLevel2 extends GamePlayScreen {
     }
 
 
+    /**
+     * Writes the level's progress and the state of every entity that changes:
+     * score, frame count and game status, then Mario, Donkey, the hammer, the
+     * blasters, the ladders, the barrels and monkeys still in play, and the
+     * bananas and bullets in flight.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        out.writeInt(score);
+        out.writeInt(currFrame);
+        out.writeInt(timeRemaining);
+        out.writeBoolean(gameWon);
+        out.writeBoolean(gameOver);
+        mario.saveState(out);
+        donkey.saveState(out);
+        hammer.saveState(out);
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).saveState(out);
+        }
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).saveState(out);
+        }
+        saveSurvivors(out, barrels);
+        saveSurvivors(out, monkeys);
+        bananas.saveState(out);
+        bullets.saveState(out);
+    }
+
+
+    /**
+     * Restores the state written by saveState, bringing back any barrels and monkeys
+     * destroyed since.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        this.score = in.readInt();
+        this.currFrame = in.readInt();
+        this.timeRemaining = in.readInt();
+        this.gameWon = in.readBoolean();
+        this.gameOver = in.readBoolean();
+        mario.loadState(in);
+        donkey.loadState(in);
+        hammer.loadState(in);
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).loadState(in);
+        }
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).loadState(in);
+        }
+        loadSurvivors(in, barrels, allBarrels, barrelGrid);
+        loadSurvivors(in, monkeys, allMonkeys, monkeyGrid);
+        bananas.loadState(in);
+        bananaGrid.clear();
+        ArrayList<Banana> activeBananas = bananas.getActive();
+        for (int i = 0; i < activeBananas.size(); i++) {
+            bananaGrid.insert(activeBananas.get(i));
+        }
+        bullets.loadState(in);
+    }
+
+
+    /**
+     * Draws all entities in the level and then the screen texts.
+     *
+     * @param buffer The frame's draw commands
+     */
+    @Override
+    protected void drawLevel(RenderBuffer buffer) {
+        // Render static entities
+        drawPlatforms(buffer);
+        buffer.nextLayer();
+        drawHammer(buffer);
+        buffer.nextLayer();
+        drawBlasters(buffer);
+        buffer.nextLayer();
+        // Render moving entities
+        for (int i = 0; i < ladders.size(); i++) {
+            ladders.get(i).draw(buffer);
+        }
+        buffer.nextLayer();
+        mario.draw(buffer);
+        buffer.nextLayer();
+        donkey.draw(buffer);
+        buffer.nextLayer();
+        for (int i = 0; i < barrels.size(); i++) {
+            barrels.get(i).draw(buffer);
+        }
+        buffer.nextLayer();
+        for (int i = 0; i < monkeys.size(); i++) {
+            monkeys.get(i).draw(buffer);
+        }
+        buffer.nextLayer();
+        ArrayList<Banana> activeBananas = bananas.getActive();
+        for (int i = 0; i < activeBananas.size(); i++) {
+            activeBananas.get(i).draw(buffer);
+        }
+        buffer.nextLayer();
+        ArrayList<Bullet> activeBullets = bullets.getActive();
+        for (int i = 0; i < activeBullets.size(); i++) {
+            activeBullets.get(i).draw(buffer);
+        }
+        // Then render texts for the level
+        showScreenText(buffer);
+    }
+
+
     /**
      * Tracks the remaining time based on frame count and sets game over
      * if time runs out.
@@ -245,30 +350,29 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * Updates Ladders' states, applying gravity if not aligned to platforms
      */
     private void updateLadders() {
-        for (Ladder ladder : ladders) {
-            ladder.update(platforms);
+        for (int i = 0; i < ladders.size(); i++) {
+            Ladder ladder = ladders.get(i);
+            ladder.update(platformIndex);
         }
     }
 
 
     /**
      * Updates Mario’s state, including interaction with platforms, hammers, blasters
-     * and ladders. Also handles shooting and adding into the Bullet's ArrayList.
+     * and ladders. Also handles shooting bullets from the bullet pool.
      *
      * @param input The current keyboard input
      */
-    private void updateMario(Input input) {
+    private void updateMario(FrameInput input) {
         mario.checkHammers(hammer);
         mario.checkBlasters(blasters);
 
-        // Add newly created Bullet to bullets if Mario (player) shoots
-        if (mario.shootBullet(input) != null) {
-            Bullet bullet = mario.shootBullet(input);
-            bullets.add(bullet);
+        // Fire a bullet from the pool if Mario (player) shoots
+        if (mario.shootBullet(input, bullets)) {
             mario.bulletSpent();
         }
 
-        mario.updateLevel2(input, platforms, ladders);
+        mario.updateLevel2(input, platformIndex, ladders);
     }
 
 
@@ -277,7 +381,7 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * Ends the game if a collision occurs.
      */
     private void updateDonkey() {
-        donkey.update(platforms);
+        donkey.update(platformIndex);
 
         // Game ends and update game status to won when Donkey's health reaches 0
         if (donkey.getHealth() <= 0) {
@@ -297,22 +401,38 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * for scoring and collisions for loss condition.
      */
     private void updateBarrels() {
-        for (Barrel barrel : barrels) {
-            // Handle being jumped over by Mario and update score
+        // Handle being jumped over by Mario and update score
+        for (int i = 0; i < barrels.size(); i++) {
+            Barrel barrel = barrels.get(i);
             if (mario.jumpedOverBarrel(barrel) && barrel.isAlive()) {
                 this.score += getBarrelCrossScore();
             }
-            // Handle collision with Mario and update score
-            if (mario.marioCollidesWith(barrel) && barrel.isAlive()) {
-                if (mario.hasHammer()) {
-                    barrel.destroy();
-                    this.score += getBarrelDestroyScore();
-                } else {
-                    this.gameOver = true;
-                    this.gameWon = false;
-                }
+        }
+
+        // Handle collision with Mario and update score, only looking at barrels near Mario
+        barrelGrid.query(mario, nearbyBarrels);
+        for (int i = 0; i < nearbyBarrels.size(); i++) {
+            Barrel barrel = nearbyBarrels.get(i);
+            if (mario.hasHammer()) {
+                barrel.destroy();
+                barrelGrid.remove(barrel);
+                this.score += getBarrelDestroyScore();
+            } else {
+                this.gameOver = true;
+                this.gameWon = false;
+            }
+        }
+        // Drop destroyed barrels so they are no longer updated or checked, keeping the order of the rest
+        removeDestroyed(barrels);
+
+        // Apply gravity to all falling barrels in one pass, then finish each barrel's step
+        GravityIntegrator.integrate(getEntityStore(), barrelSlots);
+        for (int i = 0; i < barrels.size(); i++) {
+            Barrel barrel = barrels.get(i);
+            if (!barrel.isAsleep()) {
+                barrel.updateAfterGravity(platformIndex);
             }
-            barrel.update(platforms);
+            barrelGrid.move(barrel);
         }
     }
 
@@ -324,25 +444,39 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * and collision detection with Mario.
      */
     private void updateMonkeys() {
-        for (Monkey monkey : monkeys) {
-            // Handles banana shooting by Intelligent Monkey
+        // Handles banana shooting by Intelligent Monkey
+        for (int i = 0; i < monkeys.size(); i++) {
+            Monkey monkey = monkeys.get(i);
             if (monkey instanceof IntelligentMonkey intelliMonkey) {
-                Banana b = intelliMonkey.shouldShootBanana();
+                Banana b = intelliMonkey.shouldShootBanana(bananas);
                 if (b != null) {
-                    bananas.add(b);
+                    bananaGrid.insert(b);
                 }
             }
-            // Handles collision detection with Mario
-            if (monkey.isAppear() && mario.marioCollidesWith(monkey)) {
-                if (mario.hasHammer()) {
-                    monkey.destroy();
-                    this.score += MONKEY_DESTROY_SCORE;
-                } else {
-                    this.gameWon = false;
-                    this.gameOver = true;
-                }
+        }
+
+        // Handles collision detection with Mario, only looking at monkeys near Mario
+        monkeyGrid.query(mario, nearbyMonkeys);
+        for (int i = 0; i < nearbyMonkeys.size(); i++) {
+            Monkey monkey = nearbyMonkeys.get(i);
+            if (mario.hasHammer()) {
+                monkey.destroy();
+                monkeyGrid.remove(monkey);
+                this.score += MONKEY_DESTROY_SCORE;
+            } else {
+                this.gameWon = false;
+                this.gameOver = true;
             }
-            monkey.update(platforms);
+        }
+        // Drop destroyed monkeys so they are no longer updated or checked, keeping the order of the rest
+        removeDestroyed(monkeys);
+
+        // Apply gravity to all live monkeys in one pass, then finish each monkey's step
+        GravityIntegrator.integrate(getEntityStore(), monkeySlots);
+        for (int i = 0; i < monkeys.size(); i++) {
+            Monkey monkey = monkeys.get(i);
+            monkey.updateAfterGravity(platformIndex);
+            monkeyGrid.move(monkey);
         }
         // Handles update of bananas within its shooter's update logic
         updateBananas();
@@ -353,14 +487,26 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * Updates all banana projectiles currently on screen.
      */
     private void updateBananas() {
-        for (Banana banana : bananas) {
-            // Handles movement and collision detection with Mario
-            if (banana.isAppear() && mario.marioCollidesWith(banana)) {
-                this.gameOver = true;
-                this.gameWon = false;
-            }
+        // Handles collision detection with Mario, only looking at bananas near Mario
+        bananaGrid.query(mario, nearbyBananas);
+        if (!nearbyBananas.isEmpty()) {
+            this.gameOver = true;
+            this.gameWon = false;
+        }
+
+        // Handles movement, dropping spent bananas from the grid
+        ArrayList<Banana> activeBananas = bananas.getActive();
+        for (int i = 0; i < activeBananas.size(); i++) {
+            Banana banana = activeBananas.get(i);
             banana.update();
+            if (banana.isAppear()) {
+                bananaGrid.move(banana);
+            } else {
+                bananaGrid.remove(banana);
+            }
         }
+        // Recycle spent bananas so they are no longer updated or drawn
+        bananas.releaseSpent();
     }
 
 
@@ -369,23 +515,31 @@ public class GamePlayLevel2 extends GamePlayScreen {
      * Updates all bullet projectiles currently on screen.
      */
     private void updateBullets() {
-        for (Bullet bullet : bullets) {
+        ArrayList<Bullet> activeBullets = bullets.getActive();
+        for (int i = 0; i < activeBullets.size(); i++) {
+            Bullet bullet = activeBullets.get(i);
             // Handles collision detection with monkeys and Donkey
             bullet.collideWithDonkey(donkey);
-            if (bullet.collideWithMonkeys(monkeys)) {
+            if (bullet.collideWithMonkeys(monkeyGrid)) {
                 this.score += MONKEY_DESTROY_SCORE;
             }
-            bullet.update(platforms);
+            bullet.update(platformIndex);
         }
+        // Drop monkeys destroyed by bullets
+        removeDestroyed(monkeys);
+        // Recycle spent bullets so they are no longer updated or drawn
+        bullets.releaseSpent();
     }
 
 
     /**
      * Draws all non-moving platform entities.
+     *
+     * @param buffer The frame's draw commands
      */
-    private void drawPlatforms() {
-        for (Platform platform : platforms) {
-            platform.draw();
+    private void drawPlatforms(RenderBuffer buffer) {
+        for (int i = 0; i < platforms.size(); i++) {
+            platforms.get(i).draw(buffer);
         }
     }
 
@@ -393,18 +547,22 @@ public class GamePlayLevel2 extends GamePlayScreen {
     /**
      * Draws non-moving hammer entity.
      * (Stated in README's assumption that each level has only one hammer)
+     *
+     * @param buffer The frame's draw commands
      */
-    private void drawHammer() {
-        hammer.draw();
+    private void drawHammer(RenderBuffer buffer) {
+        hammer.draw(buffer);
     }
 
 
     /**
      * Draws all non-moving blaster entities.
+     *
+     * @param buffer The frame's draw commands
      */
-    private void drawBlasters() {
-        for (Blaster blaster : blasters) {
-            blaster.draw();
+    private void drawBlasters(RenderBuffer buffer) {
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).draw(buffer);
         }
     }
 }
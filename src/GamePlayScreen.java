@@ -1,20 +1,27 @@
-import bagel.*;
 import java.util.ArrayList;
-import java.util.Properties;
+import java.util.Collections;
 
 /**
  * Abstract superclass for gameplay screens in Shadow Donkey Kong.
  *
  * Provides common initialization logic, UI rendering support,
- * property access utilities, and shared constants for both levels.
+ * and shared constants for both levels.
  */
 public abstract class GamePlayScreen implements GameScreen {
 
-    private final Properties GAME_PROPS;
+    private final GameConfig CONFIG;
+
+    // Shared state storage for the level's moving entities
+    private final EntityStore entityStore = new EntityStore();
+
+    // Platforms never move, so they are kept apart from the entities updated each tick
+    private final EntityStore platformStore = new EntityStore(1);
+
+    // The state of the level before its first update, restored to restart it
+    private SnapshotReader initialState;
 
     // Constants for frame and score tracking
     private final int MAX_FRAMES;
-    private static final int FRAMES_PER_SECOND = 60;
     private static final int BARREL_DESTROY_SCORE = 100;
     private static final int BARREL_CROSS_SCORE = 30;
 
@@ -22,8 +29,15 @@ public abstract class GamePlayScreen implements GameScreen {
     private static final String SCORE_MESSAGE = "SCORE ";
     private static final String TIME_MESSAGE = "TIME LEFT ";
 
+    // Score and time texts, shared by every level so each is only built once
+    private static final NumberText SCORE_TEXT = new NumberText(SCORE_MESSAGE, 10_000);
+    private static final NumberText TIME_TEXT = new NumberText(TIME_MESSAGE, 1_000);
+
+    // Room in the lists of entities found near Mario, so filling them does not allocate
+    protected static final int NEARBY_CAPACITY = 16;
+
     // Fonts for displaying GamePlay texts
-    private final Font GAME_PLAY_FONT;
+    private final GameFont GAME_PLAY_FONT;
 
     // Load positions for the displayed texts
     private final double SCORE_X;
@@ -34,34 +48,77 @@ public abstract class GamePlayScreen implements GameScreen {
     /**
      * Constructs the gameplay screen, loading resources and initializing game objects.
      *
-     * @param gameProps  Properties file containing game settings.
+     * @param config The game settings.
      */
-    public GamePlayScreen(Properties gameProps) {
-        this.GAME_PROPS = gameProps;
-
-        // Load the required data from the file
-        this.MAX_FRAMES = getInt("gamePlay.maxFrames");
-        this.GAME_PLAY_FONT = new Font(gameProps.getProperty("font"), getInt("gamePlay.score.fontSize"));
-        this.SCORE_X = getDouble("gamePlay.score.x");
-        this.SCORE_Y = getDouble("gamePlay.score.y");
+    public GamePlayScreen(GameConfig config) {
+        this.CONFIG = config;
+
+        HudLayout hud = config.hud();
+        this.MAX_FRAMES = config.maxFrames();
+        this.GAME_PLAY_FONT = Assets.font(hud.font(), hud.scoreFontSize());
+        this.SCORE_X = hud.score().x();
+        this.SCORE_Y = hud.score().y();
     }
 
 
     /**
-     * Updates the game state and entities for a given frame.
+     * Updates the game state and entities for a given frame, without drawing.
      *
      * @param input The current input from the keyboard
      * @return true if the level has ended, false otherwise
      */
     @Override
-    public abstract boolean update(Input input);
+    public abstract boolean update(FrameInput input);
 
 
     /**
      * Displays the score and time remaining text for the gameplay screen.
+     *
+     * @param buffer The frame's draw commands
+     */
+    @Override
+    public abstract void showScreenText(RenderBuffer buffer);
+
+
+    /**
+     * Draws the level, with each moving entity where it was before and after the last tick.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public abstract void showScreenText();
+    public void render(RenderBuffer buffer) {
+        drawLevel(buffer);
+    }
+
+
+    /**
+     * Draws all entities of the level, followed by the screen texts. Each kind of
+     * entity is drawn in a layer of its own, above the kinds drawn before it.
+     *
+     * @param buffer The frame's draw commands
+     */
+    protected abstract void drawLevel(RenderBuffer buffer);
+
+
+    /**
+     * Puts the level back into the state it was in when it was created, reusing all
+     * of its entities, so it can be played again without building a new level.
+     */
+    public void restart() {
+        initialState.rewind();
+        loadState(initialState);
+    }
+
+
+    /**
+     * Remembers the level's current state as the one restart() returns to.
+     * Called once by each level when it has finished creating its entities.
+     */
+    protected void saveInitialState() {
+        SnapshotWriter snapshot = new SnapshotWriter();
+        saveState(snapshot);
+        this.initialState = new SnapshotReader(snapshot.toByteArray());
+    }
 
 
     /**
@@ -90,7 +147,7 @@ public abstract class GamePlayScreen implements GameScreen {
 
     /**
      * Here provides a series of shared logic for initialising all game entities for
-     * both game levels, reading from app.properties file.
+     * both game levels, from the level layouts read at start-up.
      *
      * Creates and returns the Mario entity for the specified level.
      *
@@ -98,10 +155,8 @@ public abstract class GamePlayScreen implements GameScreen {
      * @return Mario instance positioned as specified in properties
      */
     public Mario initialiseMario(int level) {
-        String[] marioPos = GAME_PROPS.getProperty("mario.level" + level).split(",");
-        double marioX = Double.parseDouble(marioPos[0]);
-        double marioY = Double.parseDouble(marioPos[1]);
-        return new Mario(marioX, marioY);
+        Position position = CONFIG.level(level).mario();
+        return new Mario(entityStore, position.x(), position.y());
     }
 
 
@@ -112,10 +167,8 @@ public abstract class GamePlayScreen implements GameScreen {
      * @return Donkey instance positioned as specified in properties
      */
     public Donkey initialiseDonkey(int level) {
-        String[] donkeyPos = GAME_PROPS.getProperty("donkey.level" + level).split(",");
-        double donkeyX = Double.parseDouble(donkeyPos[0]);
-        double donkeyY = Double.parseDouble(donkeyPos[1]);
-        return new Donkey(donkeyX, donkeyY);
+        Position position = CONFIG.level(level).donkey();
+        return new Donkey(entityStore, position.x(), position.y());
     }
 
 
@@ -126,13 +179,11 @@ public abstract class GamePlayScreen implements GameScreen {
      * @return A list of Platform instances
      */
     public ArrayList<Platform> initialisePlatforms(int level) {
-        ArrayList<Platform> platforms = new ArrayList<>();
-        String[] allPlatformPos = GAME_PROPS.getProperty("platforms.level" + level).split(";");
-        for (String pos : allPlatformPos) {
-            String[] platformPos = pos.split(",");
-            double platformX = Double.parseDouble(platformPos[0]);
-            double platformY = Double.parseDouble(platformPos[1]);
-            platforms.add(new Platform(platformX, platformY));
+        PositionTable positions = CONFIG.level(level).platforms();
+        ArrayList<Platform> platforms = new ArrayList<>(positions.size());
+        platformStore.ensureCapacity(platformStore.size() + positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            platforms.add(new Platform(platformStore, positions.x(i), positions.y(i)));
         }
         return platforms;
     }
@@ -145,13 +196,11 @@ public abstract class GamePlayScreen implements GameScreen {
      * @return A list of Ladder instances
      */
     public ArrayList<Ladder> initialiseLadders(int level) {
-        ArrayList<Ladder> ladders = new ArrayList<>();
-        int ladderCount = getInt("ladder.level" + level + ".count");
-        for (int i = 1; i <= ladderCount; i++) {
-            String[] ladderPos = GAME_PROPS.getProperty("ladder.level" + level + "." + i).split(",");
-            double ladderX = Double.parseDouble(ladderPos[0]);
-            double ladderY = Double.parseDouble(ladderPos[1]);
-            ladders.add(new Ladder(ladderX, ladderY));
+        PositionTable positions = CONFIG.level(level).ladders();
+        ArrayList<Ladder> ladders = new ArrayList<>(positions.size());
+        entityStore.ensureCapacity(entityStore.size() + positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            ladders.add(new Ladder(entityStore, positions.x(i), positions.y(i)));
         }
         return ladders;
     }
@@ -164,13 +213,11 @@ public abstract class GamePlayScreen implements GameScreen {
      * @return A list of Barrel instances
      */
     public ArrayList<Barrel> initialiseBarrels(int level) {
-        ArrayList<Barrel> barrels = new ArrayList<>();
-        int barrelCount = getInt("barrel.level"  + level + ".count");
-        for (int i = 1; i <= barrelCount; i++) {
-            String[] barrelPos = GAME_PROPS.getProperty("barrel.level" + level + "." + i).split(",");
-            double barrelX = Double.parseDouble(barrelPos[0]);
-            double barrelY = Double.parseDouble(barrelPos[1]);
-            barrels.add(new Barrel(barrelX, barrelY));
+        PositionTable positions = CONFIG.level(level).barrels();
+        ArrayList<Barrel> barrels = new ArrayList<>(positions.size());
+        entityStore.ensureCapacity(entityStore.size() + positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            barrels.add(new Barrel(entityStore, positions.x(i), positions.y(i)));
         }
         return barrels;
     }
@@ -181,49 +228,130 @@ public abstract class GamePlayScreen implements GameScreen {
      * (Stated in README's assumption that each level has only one hammer)
      *
      * @param level The level number (1 or 2)
-     * @return A Hammer instance or null if not defined
+     * @return A Hammer instance
      */
     public Hammer initialiseHammer(int level) {
-        String key = "hammer.level" + level + ".1";
-        if (GAME_PROPS.containsKey(key)) {
-            String[] hammerPos = GAME_PROPS.getProperty(key).split(",");
-            double hammerX = Double.parseDouble(hammerPos[0]);
-            double hammerY = Double.parseDouble(hammerPos[1]);
-            return new Hammer(hammerX, hammerY);
-        }
-        return null;
+        Position position = CONFIG.level(level).hammer();
+        return new Hammer(position.x(), position.y());
     }
 
 
     /**
+     * Drops the entities that have been destroyed from a list, keeping the order of
+     * the rest. Unlike ArrayList.removeIf, this allocates nothing.
      *
-     * Helper method to retrieves an integer value from the game properties file.
+     * @param entities The entities still in play, in level order
+     */
+    protected void removeDestroyed(ArrayList<? extends Entity> entities) {
+        int kept = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            if (entityStore.isAlive(entities.get(i).getSlot())) {
+                Collections.swap(entities, kept++, i);
+            }
+        }
+        while (entities.size() > kept) {
+            entities.remove(entities.size() - 1);
+        }
+    }
+
+
+    /**
+     * Writes the state of a list of entities that shrinks as they are destroyed:
+     * the number still in the list, then the slot and state of each.
      *
-     * @param infoName The key of the property
-     * @return The integer value associated with the key
+     * @param out Where to write the state
+     * @param entities The entities still in play, in level order
      */
-    public int getInt(String infoName) {
-        return Integer.parseInt(GAME_PROPS.getProperty(infoName));
+    protected void saveSurvivors(StateWriter out, ArrayList<? extends Entity> entities) {
+        out.writeInt(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            out.writeInt(entities.get(i).getSlot());
+            entities.get(i).saveState(out);
+        }
     }
 
+
     /**
-     * Helper method to retrieves a double value from the game properties file.
+     * Restores a list of entities written by saveSurvivors. The list is refilled from
+     * every entity the level created, so entities destroyed since the state was saved
+     * come back; entities that were no longer in play when it was saved are destroyed
+     * and dropped from the list and the grid, and the rest get their saved state.
      *
-     * @param infoName The key of the property
-     * @return The double value associated with the key
+     * @param in Where to read the state from
+     * @param entities The list of entities still in play, to refill
+     * @param allEntities Every entity of this kind the level created, in level order
+     * @param grid The grid the entities are registered in, to refill
+     * @param <T> The type of entity
      */
-    public double getDouble(String infoName) {
-        return Double.parseDouble(GAME_PROPS.getProperty(infoName));
+    protected <T extends Entity> void loadSurvivors(StateReader in, ArrayList<T> entities,
+                                                    ArrayList<T> allEntities, SpatialGrid<T> grid) {
+        entities.clear();
+        grid.clear();
+        for (int i = 0; i < allEntities.size(); i++) {
+            entities.add(allEntities.get(i));
+            grid.insert(allEntities.get(i));
+        }
+
+        int count = in.readInt();
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = in.readInt();
+            // Survivors are saved in level order, so everything skipped over was destroyed
+            while (next < entities.size() && entities.get(next).getSlot() != slot) {
+                entityStore.setAlive(entities.get(next).getSlot(), false);
+                next++;
+            }
+            if (next == entities.size()) {
+                throw new IllegalStateException("Snapshot does not match the level: no entity in slot " + slot);
+            }
+            T entity = entities.get(next++);
+            entity.loadState(in);
+            grid.move(entity);
+        }
+        for (int i = next; i < entities.size(); i++) {
+            entityStore.setAlive(entities.get(i).getSlot(), false);
+        }
+
+        // Drop the destroyed entities, keeping the order of the rest
+        int kept = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            if (entityStore.isAlive(entity.getSlot())) {
+                entities.set(kept++, entity);
+            } else {
+                grid.remove(entity);
+            }
+        }
+        while (entities.size() > kept) {
+            entities.remove(entities.size() - 1);
+        }
+    }
+
+
+    /**
+     * Gets the game settings the level was built from.
+     * @return The game settings.
+     */
+    public GameConfig getConfig() {
+        return CONFIG;
     }
 
     /**
      * Gets the common font for GamePlay screen
      * @return The font used for displaying score and time.
      */
-    public Font getGamePlayFont() {
+    public GameFont getGamePlayFont() {
         return GAME_PLAY_FONT;
     }
 
+    /**
+     * Gets the store shared by the level's moving entities.
+     * @return The level's entity store.
+     */
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
     /**
      * Gets the maximum number of frames allowed in a level.
      * @return Maximum frame count.
@@ -233,11 +361,11 @@ public abstract class GamePlayScreen implements GameScreen {
     }
 
     /**
-     * Gets the number of frames rendered per second.
-     * @return Frame rate used to calculate time.
+     * Gets the number of simulation ticks (frames of game time) per second.
+     * @return Tick rate used to calculate time.
      */
     public int getFramesPerSecond() {
-        return FRAMES_PER_SECOND;
+        return FixedTimestep.TICKS_PER_SECOND;
     }
 
     /**
@@ -280,6 +408,26 @@ public abstract class GamePlayScreen implements GameScreen {
         return TIME_MESSAGE;
     }
 
+    /**
+     * Gets the score display text for a score, without building it again if it
+     * has been shown before.
+     * @param score The score to show.
+     * @return The score message followed by the score.
+     */
+    public String getScoreText(int score) {
+        return SCORE_TEXT.get(score);
+    }
+
+    /**
+     * Gets the time display text for the time remaining, without building it again
+     * if it has been shown before.
+     * @param timeRemaining The time to show.
+     * @return The time message followed by the time.
+     */
+    public String getTimeText(int timeRemaining) {
+        return TIME_TEXT.get(timeRemaining);
+    }
+
     /**
      * Gets the score awarded when jumping over a barrel.
      * @return Score value for jumping over a barrel.
@@ -1,10 +1,11 @@
-import bagel.*;
-
 /**
  * This interface defines the contract for all major game screens, including
  * the home screen, gameplay levels, and game over screen.
  * Each screen share common capabilities of updating its internal state based on
  * player input and rendering its visual elements to the screen.
+ *
+ * Updating never draws anything, so screens can also be stepped without a window.
+ * Rendering only adds draw commands to a RenderBuffer, which the game window draws.
  */
 public interface GameScreen {
 
@@ -14,10 +15,39 @@ public interface GameScreen {
      * @param input keyboard input for update logic
      * @return true when need to switch to another screen, false otherwise.
      */
-    boolean update(Input input);
+    boolean update(FrameInput input);
+
+    /**
+     * Renders the texts of the current screen.
+     *
+     * @param buffer The frame's draw commands
+     */
+    void showScreenText(RenderBuffer buffer);
+
+    /**
+     * Renders the current screen, including its entities and texts.
+     *
+     * @param buffer The frame's draw commands
+     */
+    default void render(RenderBuffer buffer) {
+        showScreenText(buffer);
+    }
 
     /**
-     * Renders the current screen.
+     * Writes the state this screen keeps between updates, so it can be restored
+     * into a new screen of the same kind by loadState. Screens that keep no
+     * state write nothing.
+     *
+     * @param out Where to write the state
+     */
+    default void saveState(StateWriter out) {
+    }
+
+    /**
+     * Restores state written by saveState into this newly created screen.
+     *
+     * @param in Where to read the state from
      */
-    void showScreenText();
+    default void loadState(StateReader in) {
+    }
 }
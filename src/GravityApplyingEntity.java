@@ -1,66 +1,125 @@
-import bagel.*;
-import bagel.util.Rectangle;
-import java.util.ArrayList;
-
 /**
  * An abstract base class for all entities affected by gravity in the game.
  *
  * GravityApplyingEntity handles vertical motion by applying gravity
  * and simulates falling with a maximum fall speed. It also includes logic
  * to align the entity to platforms after falling.
+ *
+ * Gravity can be applied one entity at a time by update(), or to a whole group of
+ * entities sharing a store by GravityIntegrator, followed by updateAfterGravity()
+ * on each entity that was integrated.
+ *
+ * Platforms never move, so once a step leaves an entity's position and velocity
+ * unchanged, every later step would too. The entity then goes to sleep and update()
+ * does nothing more for it.
  */
 public abstract class GravityApplyingEntity extends Entity {
 
-    // Entities' default maximum falling speed and various gravity values
-    private static final double MAX_FALL_SPEED = 10.0;
-    private final double GRAVITY;
-
-    private double velocityY = 0.0;
+    // Entities' default maximum falling speed
+    static final double MAX_FALL_SPEED = 10.0;
 
 
-    public GravityApplyingEntity(double x, double y, Image entityImage, double gravity) {
-        super(x, y, entityImage);
-        this.GRAVITY = gravity;
+    public GravityApplyingEntity(EntityStore store, double x, double y, Sprite entityImage, double gravity) {
+        super(store, x, y, entityImage);
+        store.gravity[getSlot()] = gravity;
     }
 
 
     /**
-     * Updates the entity by applying gravity, aligning to platform, and rendering.
+     * Updates the entity by applying gravity and aligning to platform.
+     * Puts the entity to sleep once it has come to rest.
      *
-     * @param platforms list of platforms for collision checks.
+     * @param platforms index of all platforms for collision checks.
      */
-    public void update(ArrayList<Platform> platforms) {
+    public void update(PlatformIndex platforms) {
+        if (isAsleep()) {
+            return;
+        }
         applyGravity();
+        updateAfterGravity(platforms);
+    }
+
+
+    /**
+     * Writes the entity's position, vertical velocity and whether it is asleep.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeDouble(getStore().velocityY[getSlot()]);
+        out.writeBoolean(isAsleep());
+    }
+
+    /**
+     * Restores the state written by saveState.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        getStore().velocityY[getSlot()] = in.readDouble();
+        getStore().setResting(getSlot(), in.readBoolean());
+    }
+
+
+    /**
+     * Finishes a step once gravity has been applied, either by update() or by
+     * GravityIntegrator for a group of entities: aligns the entity to platforms
+     * and puts it to sleep if it has come to rest.
+     *
+     * @param platforms index of all platforms for collision checks.
+     */
+    public void updateAfterGravity(PlatformIndex platforms) {
+        positionChanged();
         alignToPlatforms(platforms);
-        super.draw();
+
+        // At rest when this step changed nothing, so the next one would not either
+        EntityStore store = getStore();
+        int slot = getSlot();
+        store.setResting(slot, (store.y[slot] == store.previousY[slot])
+                && (store.velocityY[slot] == store.previousVelocityY[slot]));
+    }
+
+
+    /**
+     * Checks whether the entity has come to rest and is no longer simulated.
+     *
+     * @return true if the entity is asleep
+     */
+    public boolean isAsleep() {
+        return getStore().isResting(getSlot());
     }
 
 
     /**
      * Applies gravity to an entity, clamping its vertical velocity
      * to the configured maxFallSpeed, then updates its Y position.
+     * Gives exactly the same result as GravityIntegrator.
      */
     protected void applyGravity() {
-        this.velocityY = Math.min(velocityY + GRAVITY, MAX_FALL_SPEED);
-        this.setPosY(this.getPosY() + this.velocityY);
+        EntityStore store = getStore();
+        int slot = getSlot();
+        store.previousY[slot] = store.y[slot];
+        store.previousVelocityY[slot] = store.velocityY[slot];
+
+        double velocityY = Math.min(store.velocityY[slot] + store.gravity[slot], MAX_FALL_SPEED);
+        store.velocityY[slot] = velocityY;
+        this.setPosY(this.getPosY() + velocityY);
     }
 
 
     /**
      * Aligns the entity to the top surface of a platform when intersects.
-     * @param platforms  array of all platforms.
+     * @param platforms  index of all platforms.
      */
-    protected void alignToPlatforms(ArrayList<Platform> platforms) {
-        Rectangle entityBounds = this.getBounds();
-
-        for (Platform platform : platforms) {
-            Rectangle platformBounds = platform.getBounds();
-
-            if (platformBounds.intersects(entityBounds)) {
-                // update the centre Y position of entity to align to surface
-                this.setPosY(platformBounds.top() - halfImageHeight(getEntityImage()));
-                break;
-            }
+    protected void alignToPlatforms(PlatformIndex platforms) {
+        Platform platform = platforms.findIntersecting(this);
+        if (platform != null) {
+            // update the centre Y position of entity to align to surface
+            this.setPosY(platform.getTop() - halfImageHeight(getEntityImage()));
         }
     }
 
@@ -0,0 +1,151 @@
+import java.util.ArrayList;
+
+/**
+ * Measures how fast gravity is applied to many falling bodies, one entity at a time
+ * compared with GravityIntegrator's scalar and vectorised passes, and checks that all
+ * three give bit-identical results.
+ *
+ * Usage: GravityBenchmark [bodies] [steps]. Run with --add-modules jdk.incubator.vector
+ * to include the vectorised pass.
+ */
+public class GravityBenchmark {
+
+    // Every this many bodies, one is resting and must be left alone
+    private static final int RESTING_EVERY = 8;
+    private static final int ROUNDS = 5;
+
+    private final EntityStore store;
+    private final ArrayList<Barrel> bodies = new ArrayList<>();
+    private final double[] startY;
+    private final double[] startVelocityY;
+
+
+    public GravityBenchmark(int bodyCount) {
+        this.store = new EntityStore(bodyCount);
+        this.startY = new double[bodyCount];
+        this.startVelocityY = new double[bodyCount];
+        for (int i = 0; i < bodyCount; i++) {
+            Barrel barrel = new Barrel(store, i % 1024, i % 768);
+            bodies.add(barrel);
+            // Spread the starting speeds so some bodies are still accelerating and some are capped
+            startY[i] = store.y[barrel.getSlot()];
+            startVelocityY[i] = (i % 30) * 0.35;
+            store.setResting(barrel.getSlot(), i % RESTING_EVERY == 0);
+        }
+    }
+
+
+    /**
+     * Applies gravity for a number of steps one body at a time, as the levels did
+     * before GravityIntegrator.
+     *
+     * @param steps The number of steps to run
+     * @return The time taken in nanoseconds
+     */
+    public long runPerEntity(int steps) {
+        reset();
+        long startTime = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < bodies.size(); i++) {
+                Barrel barrel = bodies.get(i);
+                if (!barrel.isAsleep()) {
+                    barrel.applyGravity();
+                }
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Applies gravity for a number of steps with GravityIntegrator's scalar pass.
+     *
+     * @param steps The number of steps to run
+     * @return The time taken in nanoseconds
+     */
+    public long runScalar(int steps) {
+        reset();
+        long startTime = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            GravityIntegrator.integrateScalar(store, 0, bodies.size());
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Applies gravity for a number of steps with GravityIntegrator's default pass,
+     * vectorised when the Vector API is available.
+     *
+     * @param steps The number of steps to run
+     * @return The time taken in nanoseconds
+     */
+    public long runIntegrator(int steps) {
+        reset();
+        long startTime = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            GravityIntegrator.integrate(store, 0, bodies.size());
+        }
+        return System.nanoTime() - startTime;
+    }
+
+
+    /**
+     * Combines the exact bits of every body's position and velocity into one value,
+     * so runs can be compared for bit-identical results.
+     *
+     * @return A checksum of the bodies' state
+     */
+    public long checksum() {
+        long hash = 17;
+        for (int slot = 0; slot < bodies.size(); slot++) {
+            hash = hash * 31 + Double.doubleToRawLongBits(store.y[slot]);
+            hash = hash * 31 + Double.doubleToRawLongBits(store.velocityY[slot]);
+        }
+        return hash;
+    }
+
+
+    private void reset() {
+        for (int i = 0; i < bodies.size(); i++) {
+            int slot = bodies.get(i).getSlot();
+            store.y[slot] = startY[i];
+            store.velocityY[slot] = startVelocityY[i];
+        }
+    }
+
+
+    public static void main(String[] args) {
+        int bodyCount = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+        int steps = (args.length > 1) ? Integer.parseInt(args[1]) : 1_000;
+        GravityBenchmark benchmark = new GravityBenchmark(bodyCount);
+
+        long perEntity = Long.MAX_VALUE;
+        long scalar = Long.MAX_VALUE;
+        long integrator = Long.MAX_VALUE;
+        long perEntityChecksum = 0;
+        long scalarChecksum = 0;
+        long integratorChecksum = 0;
+        // Keep the best of several rounds, so the first rounds warm up the JIT
+        for (int round = 0; round < ROUNDS; round++) {
+            perEntity = Math.min(perEntity, benchmark.runPerEntity(steps));
+            perEntityChecksum = benchmark.checksum();
+            scalar = Math.min(scalar, benchmark.runScalar(steps));
+            scalarChecksum = benchmark.checksum();
+            integrator = Math.min(integrator, benchmark.runIntegrator(steps));
+            integratorChecksum = benchmark.checksum();
+        }
+
+        double bodySteps = (double) bodyCount * steps;
+        System.out.printf("%d bodies, %d steps%n", bodyCount, steps);
+        System.out.printf("per entity: %.2f ns/body-step%n", perEntity / bodySteps);
+        System.out.printf("scalar:     %.2f ns/body-step (%.1fx)%n", scalar / bodySteps, (double) perEntity / scalar);
+        System.out.printf("%s %.2f ns/body-step (%.1fx)%n",
+                GravityIntegrator.isVectorized() ? "vector:    " : "integrate: ",
+                integrator / bodySteps, (double) perEntity / integrator);
+
+        if (perEntityChecksum != scalarChecksum || perEntityChecksum != integratorChecksum) {
+            System.out.println("Results differ between the per-entity and batched paths");
+            System.exit(1);
+        }
+        System.out.println("All paths gave bit-identical results");
+    }
+}
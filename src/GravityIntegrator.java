@@ -0,0 +1,92 @@
+/**
+ * Applies gravity to a group of entities sharing an EntityStore in one pass over
+ * the store's arrays, instead of one entity at a time.
+ *
+ * Gravity is applied to every slot in the given range whose entity is alive and not
+ * resting, exactly as GravityApplyingEntity.applyGravity would: the vertical velocity
+ * gains the slot's gravity, clamped to the maximum fall speed, and is then added to
+ * the y-coordinate. The results are bit-identical to the per-entity path, so a level
+ * can switch between the two freely. Each integrated entity must then be finished
+ * with GravityApplyingEntity.updateAfterGravity.
+ *
+ * When the jdk.incubator.vector module is available (run with
+ * --add-modules jdk.incubator.vector), large ranges use SIMD lanes through
+ * VectorGravityKernel. Otherwise, and for small ranges, a scalar loop is used.
+ */
+public class GravityIntegrator {
+
+    // Whether the Vector API can be used. Checked before VectorGravityKernel is ever
+    // loaded, so the game still runs without the incubator module.
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    // Smallest range worth vectorising; a handful of bodies is quicker one slot at a time
+    private static final int MIN_VECTOR_SLOTS = 64;
+
+
+    /**
+     * Applies gravity to the falling entities in a range of slots, using SIMD lanes if available.
+     *
+     * @param store The store holding the entities
+     * @param fromSlot The first slot of the range
+     * @param toSlot One past the last slot of the range
+     */
+    public static void integrate(EntityStore store, int fromSlot, int toSlot) {
+        if (VECTOR_API_AVAILABLE && toSlot - fromSlot >= MIN_VECTOR_SLOTS) {
+            VectorGravityKernel.integrate(store, fromSlot, toSlot);
+        } else {
+            integrateScalar(store, fromSlot, toSlot);
+        }
+    }
+
+
+    /**
+     * Applies gravity to the falling entities in a range of slots, using SIMD lanes if available.
+     *
+     * @param store The store holding the entities
+     * @param slots The range of slots
+     */
+    public static void integrate(EntityStore store, SlotRange slots) {
+        integrate(store, slots.from(), slots.to());
+    }
+
+
+    /**
+     * Applies gravity to the falling entities in a range of slots one slot at a time.
+     *
+     * @param store The store holding the entities
+     * @param fromSlot The first slot of the range
+     * @param toSlot One past the last slot of the range
+     */
+    public static void integrateScalar(EntityStore store, int fromSlot, int toSlot) {
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            if ((store.fallingBits(slot) & 1L) != 0) {
+                integrateSlot(store, slot);
+            }
+        }
+    }
+
+
+    /**
+     * Checks whether integrate() uses the Vector API.
+     *
+     * @return true if SIMD lanes are used, false for the scalar fallback
+     */
+    public static boolean isVectorized() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+
+    /**
+     * Applies gravity to a single slot, remembering its state at the start of the step.
+     */
+    static void integrateSlot(EntityStore store, int slot) {
+        store.previousY[slot] = store.y[slot];
+        store.previousVelocityY[slot] = store.velocityY[slot];
+
+        double velocityY = Math.min(store.velocityY[slot] + store.gravity[slot],
+                GravityApplyingEntity.MAX_FALL_SPEED);
+        store.velocityY[slot] = velocityY;
+        store.y[slot] = store.y[slot] + velocityY;
+    }
+}
@@ -1,12 +1,10 @@
-import bagel.*;
-
 /**
  * This class represents the Hammer entity that can be collected by
  * Mario and provide invincibility.
  */
 public class Hammer extends Entity implements Collectable {
 
-    private static final Image HAMMER_IMG = new Image("res/hammer.png");
+    private static final Sprite HAMMER_IMG = Assets.sprite("res/hammer.png");
     private boolean collected = false;
 
 
@@ -16,14 +14,34 @@ public class Hammer extends Entity implements Collectable {
 
     /**
      * Only renders if hammer is still not collected.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void draw() {
+    public void draw(RenderBuffer buffer) {
         if(!this.collected) {
-            super.draw();
+            super.draw(buffer);
         }
     }
 
+    /**
+     * Writes whether the hammer has been collected.
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeBoolean(collected);
+    }
+
+    /**
+     * Restores the state written by saveState.
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        this.collected = in.readBoolean();
+    }
+
     /**
      * Sets the hammer's collected status to true after collected by Mario.
      */
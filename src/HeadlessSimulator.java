@@ -0,0 +1,75 @@
+/**
+ * Runs game levels without a window, as fast as the CPU allows.
+ *
+ * Levels are stepped through their normal update logic with input supplied by an
+ * InputScript. No images or fonts are ever loaded or drawn, so thousands of frames
+ * can be simulated per millisecond for balance checks and score auditing.
+ */
+public class HeadlessSimulator {
+
+    private final GameConfig CONFIG;
+
+
+    public HeadlessSimulator(GameConfig config) {
+        this.CONFIG = config;
+        ShadowDonkeyKong.initialiseScreenSize(config);
+    }
+
+
+    /**
+     * Plays one level from the start until it is won or lost.
+     *
+     * @param level The level number to play (1 or 2)
+     * @param script The source of keyboard input for each frame
+     * @return The outcome of the level
+     */
+    public SimulationResult runLevel(int level, InputScript script) {
+        long startTime = System.nanoTime();
+
+        GamePlayScreen screen = createLevel(level);
+        FrameInput input = new FrameInput();
+        int frame = 0;
+        boolean levelEnded = false;
+
+        // Step the level until it requests a transition (won, lost or out of time)
+        while (!levelEnded) {
+            input.clear();
+            script.fill(frame, input);
+            levelEnded = screen.update(input);
+            frame++;
+        }
+
+        return new SimulationResult(level, screen.getScore(), screen.getTimeRemaining(),
+                screen.isGameWon(), frame, System.nanoTime() - startTime);
+    }
+
+
+    /**
+     * Creates a fresh gameplay screen for the given level.
+     *
+     * @param level The level number (1 or 2)
+     * @return The new level screen
+     */
+    public GamePlayScreen createLevel(int level) {
+        if (level == 1) {
+            return new GamePlayLevel1(CONFIG);
+        } else if (level == 2) {
+            return new GamePlayLevel2(CONFIG);
+        }
+        throw new IllegalArgumentException("Unknown level: " + level);
+    }
+
+
+    /**
+     * Simulates one level headless with seeded random input and prints the outcome.
+     *
+     * @param args Optional level number (default 1) and random seed (default 0).
+     */
+    public static void main(String[] args) {
+        int level = (args.length > 0) ? Integer.parseInt(args[0]) : 1;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 0L;
+
+        HeadlessSimulator simulator = new HeadlessSimulator(GameConfigLoader.load());
+        System.out.println(simulator.runLevel(level, new RandomInputScript(seed)));
+    }
+}
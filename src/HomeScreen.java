@@ -7,15 +7,13 @@ import java.util.Properties;
  */
 public class HomeScreen implements GameScreen {
 
-    private final Properties GAME_PROPS;
-
     // Loads Home's texts, fonts, and position
     private final String TITLE;
     private final String PROMPT;
 
     // Fonts for displaying title and prompt messages
-    private final Font TITLE_FONT;
-    private final Font PROMPT_FONT;
+    private final GameFont TITLE_FONT;
+    private final GameFont PROMPT_FONT;
 
     // Vertical position for the messages
     private final double TITLE_Y;
@@ -28,36 +26,32 @@ public class HomeScreen implements GameScreen {
     /**
      * Constructs the HomeScreen, loading images, fonts, and text properties.
      *
-     * @param gameProps Properties file containing image paths and font details.
+     * @param config The game settings, holding the font details and text layout.
      * @param messageProps  Properties file containing title and prompt text.
      */
-    public HomeScreen(Properties gameProps, Properties messageProps) {
-        this.GAME_PROPS = gameProps;
-
-        // Dynamically load texts, fonts and positions from the properties files
+    public HomeScreen(GameConfig config, Properties messageProps) {
+        // Dynamically load texts from the properties file
         TITLE = messageProps.getProperty("home.title");
         PROMPT = messageProps.getProperty("home.prompt");
 
-        String font = gameProps.getProperty("font");
-        TITLE_FONT = new Font(font, getInt("home.title.fontSize"));
-        PROMPT_FONT = new Font(font, getInt("home.prompt.fontSize"));
+        HudLayout hud = config.hud();
+        TITLE_FONT = Assets.font(hud.font(), hud.titleFontSize());
+        PROMPT_FONT = Assets.font(hud.font(), hud.promptFontSize());
 
-        TITLE_Y = getDouble("home.title.y");
-        PROMPT_Y = getDouble("home.prompt.y");
+        TITLE_Y = hud.titleY();
+        PROMPT_Y = hud.promptY();
     }
 
 
     /**
-     * Handles entering game and renders the Home screen with the title, prompt and background.
+     * Handles entering game from the Home screen.
      * Waits for the player to press ENTER or 2 as keyboard input to proceed.
      *
      * @param input keyboard input for update logic
      * @return true if the user has selected to start any level, false otherwise.
      */
     @Override
-    public boolean update(Input input) {
-        showScreenText();
-
+    public boolean update(FrameInput input) {
         if (input.wasPressed(Keys.ENTER)) {
             targetLevel = GameState.GAME_PLAY_LEVEL1;
             return true;
@@ -70,12 +64,14 @@ public class HomeScreen implements GameScreen {
 
 
     /**
-     * Renders the home screen including title and prompt message.
+     * Renders the home screen including title and prompt message, centred on screen.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void showScreenText() {
-        TITLE_FONT.drawString(TITLE, textCentreX(TITLE_FONT, TITLE), TITLE_Y);
-        PROMPT_FONT.drawString(PROMPT, textCentreX(PROMPT_FONT, PROMPT), PROMPT_Y);
+    public void showScreenText(RenderBuffer buffer) {
+        buffer.drawCentredText(TITLE_FONT, TITLE, TITLE_Y);
+        buffer.drawCentredText(PROMPT_FONT, PROMPT, PROMPT_Y);
     }
 
 
@@ -86,38 +82,4 @@ public class HomeScreen implements GameScreen {
     public GameState getTargetLevel() {
         return targetLevel;
     }
-
-
-    /**
-     * Helper method to retrieves an integer value from the game properties file.
-     *
-     * @param infoName The key of the property
-     * @return The integer value associated with the key
-     */
-    private int getInt(String infoName) {
-        return Integer.parseInt(GAME_PROPS.getProperty(infoName));
-    }
-
-
-    /**
-     * Helper method to retrieves a double value from the game properties file.
-     *
-     * @param infoName The key of the property
-     * @return The double value associated with the key
-     */
-    private double getDouble(String infoName) {
-        return Double.parseDouble(GAME_PROPS.getProperty(infoName));
-    }
-
-
-    /**
-     * Calculates the x-coordinate required to center a given text string horizontally on screen.
-     *
-     * @param font The font used to measure the text width
-     * @param text The text to be centered
-     * @return The x-coordinate to center the text on screen
-     */
-    private double textCentreX(Font font, String text) {
-        return (ShadowDonkeyKong.getScreenWidth() - font.getWidth(text)) / 2.0;
-    }
 }
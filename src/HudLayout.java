@@ -0,0 +1,19 @@
+/**
+ * Font sizes and positions of the texts drawn on each screen.
+ *
+ * @param font The path of the font every text is drawn in
+ * @param scoreFontSize The size of the score and time texts during play
+ * @param score Where the score is drawn during play; the time is drawn below it
+ * @param donkeyHealth Where Donkey Kong's health is drawn during level 2
+ * @param titleFontSize The size of the title on the home screen
+ * @param titleY The height of the title on the home screen
+ * @param promptFontSize The size of the prompt on the home screen
+ * @param promptY The height of the prompt on the home screen
+ * @param statusFontSize The size of the won or lost message on the GameOver screen
+ * @param statusY The height of the won or lost message on the GameOver screen
+ * @param finalScoreFontSize The size of the final score on the GameOver screen
+ */
+public record HudLayout(String font, int scoreFontSize, Position score, Position donkeyHealth,
+                        int titleFontSize, double titleY, int promptFontSize, double promptY,
+                        int statusFontSize, double statusY, int finalScoreFontSize) {
+}
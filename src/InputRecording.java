@@ -0,0 +1,81 @@
+import java.util.Arrays;
+
+/**
+ * The keyboard input of a whole game session, one entry per simulation tick.
+ *
+ * Each tick is stored as the single byte returned by FrameInput.getRecordedState,
+ * which holds every key state the game logic reads. Since the game has no other
+ * source of randomness, feeding the same ticks back into a fresh GameController
+ * plays the session out exactly as it happened.
+ *
+ * Recordings are saved to and loaded from files by ReplayFile.
+ */
+public class InputRecording implements InputScript {
+
+    private byte[] ticks;
+    private int tickCount = 0;
+
+
+    public InputRecording() {
+        this.ticks = new byte[FixedTimestep.TICKS_PER_SECOND * 60];
+    }
+
+    /**
+     * Creates a recording holding the given ticks.
+     *
+     * @param ticks The recorded state of each tick, as packed by FrameInput.getRecordedState
+     */
+    public InputRecording(byte[] ticks) {
+        this.ticks = ticks;
+        this.tickCount = ticks.length;
+    }
+
+
+    /**
+     * Appends the key state seen by one simulation tick.
+     *
+     * @param input The input passed to the tick
+     */
+    public void record(FrameInput input) {
+        if (tickCount == ticks.length) {
+            ticks = Arrays.copyOf(ticks, ticks.length * 2);
+        }
+        ticks[tickCount++] = (byte) input.getRecordedState();
+    }
+
+
+    /**
+     * Gets the number of ticks recorded.
+     *
+     * @return The tick count
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+
+    /**
+     * Gets the key state recorded for a tick.
+     *
+     * @param tick The tick number, starting from 0
+     * @return The state packed by FrameInput.getRecordedState
+     */
+    public int getState(int tick) {
+        return ticks[tick] & 0xFF;
+    }
+
+
+    /**
+     * Sets the input to the key state recorded for the given tick.
+     * Ticks past the end of the recording have no keys down.
+     *
+     * @param frame The tick number, starting from 0
+     * @param input The input to fill in, already cleared
+     */
+    @Override
+    public void fill(int frame, FrameInput input) {
+        if (frame < tickCount) {
+            input.setRecordedState(ticks[frame] & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * This interface defines a synthetic source of keyboard input, used to drive
+ * the game without a window or a player.
+ */
+public interface InputScript {
+
+    /**
+     * Fills in the key state for the given frame.
+     *
+     * @param frame The frame number, starting from 0
+     * @param input The input to fill in, already cleared
+     */
+    void fill(int frame, FrameInput input);
+}
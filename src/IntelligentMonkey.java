@@ -1,6 +1,3 @@
-import bagel.*;
-import java.util.ArrayList;
-
 /**
  * Represents the intelligent monkey enemy that patrols and shoots bananas.
  *
@@ -9,47 +6,71 @@ import java.util.ArrayList;
  */
 public class IntelligentMonkey extends Monkey {
 
-    private static final Image INTELLI_MONKEY_RIGHT_IMG = new Image("res/intelli_monkey_right.png");
-    private static final Image INTELLI_MONKEY_LEFT_IMG = new Image("res/intelli_monkey_left.png");
-    private static final int FRAMES_PER_SECOND = 60;
+    private static final Sprite INTELLI_MONKEY_RIGHT_IMG = Assets.sprite("res/intelli_monkey_right.png");
+    private static final Sprite INTELLI_MONKEY_LEFT_IMG = Assets.sprite("res/intelli_monkey_left.png");
     private final int SHOOTING_INTERVAL = 5;
 
     private int shootTimer = 0;
 
 
-    public IntelligentMonkey(double x, double y, boolean facingRight, ArrayList<Integer> route) {
-        super(x, y, facingRight, route, INTELLI_MONKEY_RIGHT_IMG, INTELLI_MONKEY_LEFT_IMG);
+    public IntelligentMonkey(EntityStore store, double x, double y, boolean facingRight, int[] route) {
+        super(store, x, y, facingRight, route, INTELLI_MONKEY_RIGHT_IMG, INTELLI_MONKEY_LEFT_IMG);
     }
 
 
     /**
-     * Updates the monkey's state each frame by performing base movement logic
+     * Finishes the monkey's update each frame by performing base movement logic
      * and incrementing the shooting timer.
      *
      * @param platforms The platforms used for gravity alignment and edge detection
      */
     @Override
-    public void update(ArrayList<Platform> platforms) {
-        super.update(platforms);
+    public void updateAfterGravity(PlatformIndex platforms) {
+        super.updateAfterGravity(platforms);
 
         shootTimer++;
     }
 
 
+    /**
+     * Writes the monkey's state, including how long since it last threw a banana.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeInt(shootTimer);
+    }
+
+
+    /**
+     * Restores the state written by saveState.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        this.shootTimer = in.readInt();
+    }
+
+
     /**
      * Called externally to check if it is time to shoot a banana.
-     * If it is, resets timer and returns a new Banana; otherwise returns null.
+     * If it is, resets timer and fires a banana from the pool; otherwise returns null.
      *
-     * @return A new Banana if it's time to shoot, otherwise null
+     * @param bananas The pool to fire the banana from
+     * @return The fired Banana if it's time to shoot, otherwise null
      */
-    public Banana shouldShootBanana() {
+    public Banana shouldShootBanana(ProjectilePool<Banana> bananas) {
         // Get the timer in seconds to check shooting interval
-        int shootTimerSeconds = shootTimer / FRAMES_PER_SECOND;
+        int shootTimerSeconds = shootTimer / FixedTimestep.TICKS_PER_SECOND;
 
-        // Create a new banana if it is alive and has reached its shooting interval
+        // Fire a banana if it is alive and has reached its shooting interval
         if (isAppear() && (shootTimerSeconds >= SHOOTING_INTERVAL)) {
             shootTimer = 0;
-            return new Banana(this.getPosX(), this.getPosY(), isFacingRight());
+            return bananas.spawn(this.getPosX(), this.getPosY(), isFacingRight());
         }
         return null;
     }
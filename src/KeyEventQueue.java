@@ -0,0 +1,233 @@
+import bagel.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free queue of timestamped key presses and releases, from the window
+ * thread that samples the keyboard to the simulation thread that runs the ticks.
+ *
+ * Only one thread may add events and only one may take them. Events live in a
+ * fixed ring of primitive arrays, so neither side allocates or waits for the
+ * other. Each event carries the time it was sampled, so a simulation running at
+ * its own pace, or faster than real time, takes exactly the events due by each
+ * tick, and the time from sampling to the tick that saw it is measured.
+ *
+ * A press and release of a key between two ticks are both delivered to the next
+ * tick, so the tick sees the key as pressed even though it is no longer held.
+ *
+ * Every event also carries which keys the producer had held once it happened, and
+ * a tick takes its held keys from the last event it takes. If an event is dropped
+ * because the queue is full, or the window's keyboard disagrees with the events
+ * sent, the next sample sends the window's held keys on their own, so a dropped
+ * release can never leave a key held.
+ */
+public class KeyEventQueue {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // An event is the key's bit index in FrameInput, shifted left, with this bit set for a release
+    private static final int RELEASED = 1;
+    // An event only carrying the held keys
+    private static final int SYNC = -1;
+
+    private final int[] events;
+    private final long[] times;
+    private final int[] heldMasks;
+    private final int mask;
+
+    // The next event to take and the next free slot; each is only written by one side
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // Producer only: the last head seen, so the shared head is only read when the ring looks full
+    private long knownHead = 0;
+    private long droppedCount = 0;
+    // Producer only: the keys held as of the last event, and whether the consumer may not have them
+    private int producerHeld = 0;
+    private boolean outOfSync = false;
+
+    // Consumer only: how long taken events waited
+    private long deliveredCount = 0;
+    private long totalLatencyNanos = 0;
+    private long maxLatencyNanos = 0;
+
+
+    public KeyEventQueue(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.events = new int[capacity];
+        this.times = new long[capacity];
+        this.heldMasks = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Creates a queue holding the default number of events.
+     */
+    public KeyEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Adds an event for every tracked key pressed or released since the window's
+     * last frame, and the keys the window holds if the consumer may not have them.
+     * Producer thread only.
+     *
+     * @param input The current keyboard input from the window
+     * @param timeNanos When the input was sampled, from System.nanoTime()
+     */
+    public void sample(Input input, long timeNanos) {
+        int held = 0;
+        for (int i = 0; i < FrameInput.getTrackedKeyCount(); i++) {
+            Keys key = FrameInput.getTrackedKey(i);
+            boolean pressed = input.wasPressed(key);
+            boolean released = input.wasReleased(key);
+            boolean down = input.isDown(key);
+            if (pressed && released) {
+                // Both in one frame: the key is still down only if it was released first
+                offer(i, down, timeNanos);
+                offer(i, !down, timeNanos);
+            } else if (pressed || released) {
+                offer(i, released, timeNanos);
+            }
+            if (down) {
+                held |= 1 << i;
+            }
+        }
+
+        if (outOfSync || held != producerHeld) {
+            producerHeld = held;
+            outOfSync = !add(SYNC, timeNanos);
+        }
+    }
+
+    /**
+     * Adds one key press or release. Producer thread only.
+     *
+     * @param key The key; keys the game does not track are ignored
+     * @param released true for a release, false for a press
+     * @param timeNanos When it happened, from System.nanoTime()
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offer(Keys key, boolean released, long timeNanos) {
+        int index = FrameInput.getTrackedKeyIndex(key);
+        return index < 0 || offer(index, released, timeNanos);
+    }
+
+    private boolean offer(int keyIndex, boolean released, long timeNanos) {
+        if (released) {
+            producerHeld &= ~(1 << keyIndex);
+        } else {
+            producerHeld |= 1 << keyIndex;
+        }
+        boolean added = add((keyIndex << 1) | (released ? RELEASED : 0), timeNanos);
+        // An event carries every key held, so one that arrives makes up for any dropped before it
+        outOfSync = !added;
+        return added;
+    }
+
+    private boolean add(int event, long timeNanos) {
+        long slot = tail.get();
+        if (slot - knownHead == events.length) {
+            knownHead = head.get();
+            if (slot - knownHead == events.length) {
+                droppedCount++;
+                return false;
+            }
+        }
+        events[(int) slot & mask] = event;
+        times[(int) slot & mask] = timeNanos;
+        heldMasks[(int) slot & mask] = producerHeld;
+        // Publishes the event written above to the consumer
+        tail.lazySet(slot + 1);
+        return true;
+    }
+
+
+    /**
+     * Applies every event sampled up to a time to the input of a tick: pressed keys
+     * become pressed, and the keys held become those held as of the last event.
+     * Presses from earlier ticks are not cleared. Consumer thread only.
+     *
+     * @param untilNanos The latest sampling time to take, from System.nanoTime()
+     * @param input The input the tick will see
+     * @return The number of events taken
+     */
+    public int poll(long untilNanos, FrameInput input) {
+        long first = head.get();
+        long last = tail.get();
+        long slot = first;
+        int pressed = input.getPressedMask();
+        while (slot < last && times[(int) slot & mask] - untilNanos <= 0) {
+            int event = events[(int) slot & mask];
+            if (event != SYNC && (event & RELEASED) == 0) {
+                pressed |= 1 << (event >>> 1);
+            }
+            slot++;
+        }
+        if (slot == first) {
+            return 0;
+        }
+        input.setMasks(heldMasks[(int) (slot - 1) & mask], pressed);
+
+        long now = System.nanoTime();
+        for (long taken = first; taken < slot; taken++) {
+            long latency = now - times[(int) taken & mask];
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        }
+        deliveredCount += slot - first;
+        // Frees the slots for the producer once they have been read
+        head.lazySet(slot);
+        return (int) (slot - first);
+    }
+
+
+    /**
+     * Gets the number of events that could not be added because the queue was full.
+     * Only read on the producer thread or once it has stopped.
+     *
+     * @return The dropped event count
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Gets the number of events taken by poll. Only read on the consumer thread or
+     * once it has stopped.
+     *
+     * @return The delivered event count
+     */
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * Gets the mean time from sampling an event to the poll that took it.
+     *
+     * @return The mean latency in nanoseconds, or 0 if no event was taken
+     */
+    public double getMeanLatencyNanos() {
+        return (deliveredCount == 0) ? 0 : (double) totalLatencyNanos / deliveredCount;
+    }
+
+    /**
+     * Gets the longest time from sampling an event to the poll that took it.
+     *
+     * @return The longest latency in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Prints how many events were delivered and dropped, and how long they waited.
+     */
+    public void printSummary() {
+        System.out.printf("key events: delivered=%d dropped=%d mean latency=%.3fms max latency=%.3fms%n",
+                deliveredCount, droppedCount, getMeanLatencyNanos() / 1_000_000.0, maxLatencyNanos / 1_000_000.0);
+    }
+}
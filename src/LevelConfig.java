@@ -0,0 +1,24 @@
+import java.util.List;
+
+/**
+ * The starting layout of one game level, read once at start-up from app.properties
+ * or from a binary level file (see LevelFile).
+ *
+ * @param level The level number (1 or 2)
+ * @param mario Where Mario starts
+ * @param donkey Where Donkey Kong stands
+ * @param hammer Where the level's hammer lies
+ * @param platforms The centre of each platform
+ * @param ladders Where each ladder starts
+ * @param barrels Where each barrel starts
+ * @param blasters Where each blaster lies, empty on levels without blasters
+ * @param monkeys Every monkey, the normal ones first, empty on levels without monkeys
+ */
+public record LevelConfig(int level, Position mario, Position donkey, Position hammer,
+                          PositionTable platforms, PositionTable ladders, PositionTable barrels,
+                          PositionTable blasters, List<MonkeyConfig> monkeys) {
+
+    public LevelConfig {
+        monkeys = List.copyOf(monkeys);
+    }
+}
@@ -0,0 +1,37 @@
+import java.io.IOException;
+
+/**
+ * Converts a level laid out in app.properties into a binary level file.
+ *
+ * The file is read back and compared with the original layout before the tool
+ * reports success. To play the converted level, add "levelFile.levelN=path" to
+ * app.properties; the level's entity settings are then ignored.
+ *
+ * Usage: LevelConverter level output
+ */
+public class LevelConverter {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelConverter <level> <output>");
+            System.exit(-1);
+        }
+        int level = Integer.parseInt(args[0]);
+        String output = args[1];
+
+        LevelConfig layout = GameConfigLoader.load().level(level);
+        try {
+            LevelFile.write(output, layout);
+            if (!LevelFile.read(output, level).equals(layout)) {
+                System.err.println("The level read back from " + output + " differs from app.properties");
+                System.exit(1);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        System.out.printf("Wrote level %d to %s: %d platforms, %d ladders, %d barrels, %d blasters, %d monkeys%n",
+                level, output, layout.platforms().size(), layout.ladders().size(), layout.barrels().size(),
+                layout.blasters().size(), layout.monkeys().size());
+    }
+}
@@ -0,0 +1,281 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A level layout saved in a compact binary file, for levels too large to list
+ * entity by entity in app.properties.
+ *
+ * The file is a directory of sections, one per kind of entity. Positions are stored
+ * as a column of x-coordinates followed by a column of y-coordinates, so a section
+ * is read with one bulk copy from the memory-mapped file straight into the arrays
+ * of a PositionTable, with no text to parse and no object per entity.
+ *
+ * Layout, with all numbers big-endian:
+ * <pre>
+ * header    magic "SDKL", version (short), section count (int)
+ * directory per section: tag, entity count, file offset, length in bytes (ints)
+ * sections  positions: every x, then every y (doubles)
+ *           monkeys: per monkey x, y (doubles), flags (byte: 1 facing right,
+ *           2 intelligent), route length (int), route segments (ints)
+ * </pre>
+ * Mario, Donkey, the hammer and the platforms must be present; the other sections
+ * may be left out when the level has none of them, and sections with unknown tags
+ * are skipped.
+ */
+public class LevelFile {
+
+    // "SDKL" in ASCII
+    private static final int MAGIC = 0x53444B4C;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + Integer.BYTES;
+    private static final int DIRECTORY_ENTRY_BYTES = 4 * Integer.BYTES;
+
+    // Section tags
+    private static final int MARIO = 1;
+    private static final int DONKEY = 2;
+    private static final int HAMMER = 3;
+    private static final int PLATFORMS = 4;
+    private static final int LADDERS = 5;
+    private static final int BARRELS = 6;
+    private static final int BLASTERS = 7;
+    private static final int MONKEYS = 8;
+    private static final int SECTION_COUNT = 8;
+
+    private static final int FACING_RIGHT = 1;
+    private static final int INTELLIGENT = 2;
+
+    // Position, flags, route length and a route of one segment
+    private static final int MIN_MONKEY_BYTES = 2 * Double.BYTES + 1 + 2 * Integer.BYTES;
+
+    private final MappedByteBuffer data;
+    private final String path;
+
+
+    private LevelFile(MappedByteBuffer data, String path) {
+        this.data = data;
+        this.path = path;
+    }
+
+
+    /**
+     * Reads a level layout from a file.
+     *
+     * @param path The file to read
+     * @param level The number the level is played as (1 or 2)
+     * @return The level's layout
+     * @throws IOException If the file cannot be read or is not a valid level file
+     */
+    public static LevelConfig read(String path, int level) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new LevelFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path).readLevel(level);
+        } catch (NoSuchFileException ex) {
+            throw new IOException("No such level file: " + path, ex);
+        }
+    }
+
+
+    private LevelConfig readLevel(int level) throws IOException {
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a level file: " + path);
+        }
+        int version = data.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported level file version " + version + ": " + path);
+        }
+        int sectionCount = data.getInt(6);
+        if (sectionCount < 0 || (long) HEADER_BYTES + (long) sectionCount * DIRECTORY_ENTRY_BYTES > data.capacity()) {
+            throw corrupt("bad section count " + sectionCount);
+        }
+
+        PositionTable[] positions = new PositionTable[SECTION_COUNT + 1];
+        List<MonkeyConfig> monkeys = null;
+        for (int i = 0; i < sectionCount; i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            int tag = data.getInt(entry);
+            int count = data.getInt(entry + 4);
+            int offset = data.getInt(entry + 8);
+            int length = data.getInt(entry + 12);
+            if (count < 0 || offset < 0 || length < 0 || (long) offset + length > data.capacity()) {
+                throw corrupt("section " + tag + " lies outside the file");
+            }
+            if (tag < MARIO || tag > MONKEYS) {
+                continue;
+            }
+            if (positions[tag] != null || (tag == MONKEYS && monkeys != null)) {
+                throw corrupt("section " + tag + " appears twice");
+            }
+            if (tag == MONKEYS) {
+                monkeys = readMonkeys(count, offset, length);
+            } else {
+                positions[tag] = readPositions(tag, count, offset, length);
+            }
+        }
+
+        return new LevelConfig(level,
+                readSingle(positions, MARIO, "Mario"),
+                readSingle(positions, DONKEY, "Donkey"),
+                readSingle(positions, HAMMER, "hammer"),
+                require(positions, PLATFORMS, "platforms"),
+                optional(positions, LADDERS),
+                optional(positions, BARRELS),
+                optional(positions, BLASTERS),
+                (monkeys == null) ? List.of() : monkeys);
+    }
+
+
+    private PositionTable readPositions(int tag, int count, int offset, int length) throws IOException {
+        if ((long) count * 2 * Double.BYTES != length) {
+            throw corrupt("section " + tag + " has " + length + " bytes for " + count + " positions");
+        }
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        data.slice(offset, count * Double.BYTES).asDoubleBuffer().get(xs);
+        data.slice(offset + count * Double.BYTES, count * Double.BYTES).asDoubleBuffer().get(ys);
+        for (int i = 0; i < count; i++) {
+            if (!Double.isFinite(xs[i]) || !Double.isFinite(ys[i])) {
+                throw corrupt("section " + tag + " has a position that is not a finite number");
+            }
+        }
+        return new PositionTable(xs, ys);
+    }
+
+    private List<MonkeyConfig> readMonkeys(int count, int offset, int length) throws IOException {
+        if (count > length / MIN_MONKEY_BYTES) {
+            throw corrupt("monkey section has " + length + " bytes for " + count + " monkeys");
+        }
+        List<MonkeyConfig> monkeys = new ArrayList<>(count);
+        ByteBuffer section = data.slice(offset, length);
+        try {
+            for (int i = 0; i < count; i++) {
+                double x = section.getDouble();
+                double y = section.getDouble();
+                int flags = section.get();
+                int routeLength = section.getInt();
+                if (!Double.isFinite(x) || !Double.isFinite(y)
+                        || routeLength <= 0 || routeLength > section.remaining() / Integer.BYTES) {
+                    throw corrupt("monkey " + i + " is invalid");
+                }
+                int[] route = new int[routeLength];
+                for (int j = 0; j < routeLength; j++) {
+                    route[j] = section.getInt();
+                    if (route[j] <= 0) {
+                        throw corrupt("monkey " + i + " has a route segment of " + route[j]);
+                    }
+                }
+                monkeys.add(new MonkeyConfig(new Position(x, y), (flags & FACING_RIGHT) != 0, route,
+                        (flags & INTELLIGENT) != 0));
+            }
+        } catch (BufferUnderflowException ex) {
+            throw corrupt("monkey section is truncated");
+        }
+        return monkeys;
+    }
+
+    private Position readSingle(PositionTable[] positions, int tag, String name) throws IOException {
+        PositionTable table = require(positions, tag, name);
+        if (table.size() != 1) {
+            throw corrupt("expected one " + name + " but found " + table.size());
+        }
+        return new Position(table.x(0), table.y(0));
+    }
+
+    private PositionTable require(PositionTable[] positions, int tag, String name) throws IOException {
+        if (positions[tag] == null) {
+            throw corrupt("no " + name + " section");
+        }
+        return positions[tag];
+    }
+
+    private static PositionTable optional(PositionTable[] positions, int tag) {
+        return (positions[tag] == null) ? PositionTable.EMPTY : positions[tag];
+    }
+
+    private IOException corrupt(String problem) {
+        return new IOException("Corrupt level file " + path + ": " + problem);
+    }
+
+
+    /**
+     * Writes a level layout to a file, replacing it if it exists.
+     *
+     * @param path The file to write
+     * @param level The level's layout
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(String path, LevelConfig level) throws IOException {
+        PositionTable[] positions = new PositionTable[SECTION_COUNT + 1];
+        positions[MARIO] = single(level.mario());
+        positions[DONKEY] = single(level.donkey());
+        positions[HAMMER] = single(level.hammer());
+        positions[PLATFORMS] = level.platforms();
+        positions[LADDERS] = level.ladders();
+        positions[BARRELS] = level.barrels();
+        positions[BLASTERS] = level.blasters();
+
+        int monkeyBytes = 0;
+        for (MonkeyConfig monkey : level.monkeys()) {
+            monkeyBytes += 2 * Double.BYTES + 1 + Integer.BYTES + monkey.route().length * Integer.BYTES;
+        }
+
+        // Lay the sections out one after another behind the directory
+        int[] offsets = new int[SECTION_COUNT + 1];
+        int[] lengths = new int[SECTION_COUNT + 1];
+        int offset = HEADER_BYTES + SECTION_COUNT * DIRECTORY_ENTRY_BYTES;
+        for (int tag = MARIO; tag <= MONKEYS; tag++) {
+            offsets[tag] = offset;
+            lengths[tag] = (tag == MONKEYS) ? monkeyBytes : positions[tag].size() * 2 * Double.BYTES;
+            offset += lengths[tag];
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(offset);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putInt(SECTION_COUNT);
+        for (int tag = MARIO; tag <= MONKEYS; tag++) {
+            out.putInt(tag);
+            out.putInt((tag == MONKEYS) ? level.monkeys().size() : positions[tag].size());
+            out.putInt(offsets[tag]);
+            out.putInt(lengths[tag]);
+        }
+        for (int tag = MARIO; tag < MONKEYS; tag++) {
+            PositionTable table = positions[tag];
+            for (int i = 0; i < table.size(); i++) {
+                out.putDouble(table.x(i));
+            }
+            for (int i = 0; i < table.size(); i++) {
+                out.putDouble(table.y(i));
+            }
+        }
+        for (MonkeyConfig monkey : level.monkeys()) {
+            out.putDouble(monkey.position().x());
+            out.putDouble(monkey.position().y());
+            out.put((byte) ((monkey.facingRight() ? FACING_RIGHT : 0) | (monkey.intelligent() ? INTELLIGENT : 0)));
+            int[] route = monkey.route();
+            out.putInt(route.length);
+            for (int segment : route) {
+                out.putInt(segment);
+            }
+        }
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    private static PositionTable single(Position position) {
+        return new PositionTable(new double[] {position.x()}, new double[] {position.y()});
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Measures how long generated levels of several sizes take to load from
+ * app.properties compared with a binary LevelFile, and how long building the
+ * level's entities from the loaded layout takes.
+ *
+ * Each generated level has the given number of platforms and barrels, a tenth as
+ * many ladders and a hundredth as many monkeys, spread over the screen. It replaces
+ * level 1 of res/app.properties; level 2 is left as it is.
+ *
+ * Usage: LevelLoadBenchmark [sizes...], by default 1000, 10000 and 100000.
+ */
+public class LevelLoadBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int LEVEL = 1;
+
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = (args.length > 0) ? new int[args.length] : new int[] {1_000, 10_000, 100_000};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        Path directory = Files.createTempDirectory("levels");
+        Properties baseProps = IOUtils.readPropertiesFile(GameConfigLoader.DEFAULT_PATH);
+        System.out.println("entities/kind  properties  level file  speed-up  build level  file size");
+        for (int size : sizes) {
+            Properties props = generateLevel(baseProps, size);
+            String propsPath = directory.resolve("level" + size + ".properties").toString();
+            try (OutputStream out = new FileOutputStream(propsPath)) {
+                props.store(out, null);
+            }
+            GameConfig config = GameConfigLoader.load(props);
+            ShadowDonkeyKong.initialiseScreenSize(config);
+            String levelPath = directory.resolve("level" + size + ".sdkl").toString();
+            LevelFile.write(levelPath, config.level(LEVEL));
+
+            // Keep the best of several rounds, so the first rounds warm up the JIT
+            long fromProperties = Long.MAX_VALUE;
+            long fromFile = Long.MAX_VALUE;
+            long build = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long startTime = System.nanoTime();
+                GameConfigLoader.load(IOUtils.readPropertiesFile(propsPath));
+                fromProperties = Math.min(fromProperties, System.nanoTime() - startTime);
+
+                startTime = System.nanoTime();
+                LevelConfig layout = LevelFile.read(levelPath, LEVEL);
+                fromFile = Math.min(fromFile, System.nanoTime() - startTime);
+                if (!layout.equals(config.level(LEVEL))) {
+                    System.out.println("The level file does not match the properties at size " + size);
+                    System.exit(1);
+                }
+
+                startTime = System.nanoTime();
+                new GamePlayLevel1(config);
+                build = Math.min(build, System.nanoTime() - startTime);
+            }
+
+            System.out.printf("%13d  %8.2fms  %8.2fms  %7.1fx  %9.2fms  %7dKB%n", size,
+                    fromProperties / 1e6, fromFile / 1e6, (double) fromProperties / fromFile,
+                    build / 1e6, Files.size(Path.of(levelPath)) / 1024);
+
+            Files.delete(Path.of(propsPath));
+            Files.delete(Path.of(levelPath));
+        }
+        Files.delete(directory);
+    }
+
+
+    /**
+     * Copies the game properties, replacing the entities of level 1 with generated ones.
+     */
+    private static Properties generateLevel(Properties baseProps, int size) {
+        Properties props = new Properties();
+        props.putAll(baseProps);
+        props.keySet().removeIf(key -> key.toString().contains("level" + LEVEL));
+
+        String prefix = ".level" + LEVEL;
+        props.setProperty("mario" + prefix, "200,650");
+        props.setProperty("donkey" + prefix, "60,150");
+        props.setProperty("hammer" + prefix + ".count", "1");
+        props.setProperty("hammer" + prefix + ".1", "750,120");
+
+        StringBuilder platforms = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                platforms.append(';');
+            }
+            platforms.append(i * 7 % 1024).append(',').append(100 + i * 13 % 660);
+        }
+        props.setProperty("platforms" + prefix, platforms.toString());
+
+        addPositions(props, "barrel" + prefix, size, 3);
+        addPositions(props, "ladder" + prefix, size / 10, 5);
+
+        int monkeyCount = size / 100;
+        props.setProperty("normalMonkey" + prefix + ".count", Integer.toString(monkeyCount));
+        for (int i = 1; i <= monkeyCount; i++) {
+            props.setProperty("normalMonkey" + prefix + "." + i,
+                    (i * 11 % 1024) + "," + (100 + i * 17 % 660) + ";" + (i % 2 == 0 ? "left" : "right") + ";300,200");
+        }
+        return props;
+    }
+
+    private static void addPositions(Properties props, String key, int count, int stride) {
+        props.setProperty(key + ".count", Integer.toString(count));
+        for (int i = 1; i <= count; i++) {
+            props.setProperty(key + "." + i, (i * stride % 1024) + "," + (100 + i * stride * 7 % 660));
+        }
+    }
+}
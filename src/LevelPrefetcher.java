@@ -0,0 +1,82 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds the game's levels on a background thread ahead of time, so the frame on
+ * which a level starts only has to pick up a level that is already built.
+ *
+ * Level 1 is built first, as the player may start it straight from the Home screen,
+ * then Level 2 while Level 1 is being played. Building a level creates all of its
+ * entities and initial snapshot and initialises the entity classes it uses, which
+ * get their sprites from Assets; the images themselves were created on the window's
+ * thread at start-up by Assets.createGraphics.
+ *
+ * Levels only read the game settings while being built, so building one on another
+ * thread gives exactly the same level as building it on the game's thread.
+ */
+public class LevelPrefetcher {
+
+    private final CompletableFuture<GamePlayLevel1> level1;
+    private final CompletableFuture<GamePlayLevel2> level2;
+
+    // Total time the game's thread spent waiting for a level that was not yet built
+    private long waitNanos = 0;
+
+
+    /**
+     * Starts building both levels in the background.
+     *
+     * @param config The game settings to build the levels from
+     */
+    public LevelPrefetcher(GameConfig config) {
+        this.level1 = CompletableFuture.supplyAsync(() -> new GamePlayLevel1(config), LevelPrefetcher::startWorker);
+        this.level2 = level1.thenApplyAsync(level -> new GamePlayLevel2(config), LevelPrefetcher::startWorker);
+    }
+
+
+    /**
+     * Gets Level 1, waiting for it to be built if it is not ready yet.
+     *
+     * @return Level 1 in its initial state
+     */
+    public GamePlayLevel1 takeLevel1() {
+        return take(level1);
+    }
+
+    /**
+     * Gets Level 2, waiting for it to be built if it is not ready yet.
+     *
+     * @return Level 2 in its initial state
+     */
+    public GamePlayLevel2 takeLevel2() {
+        return take(level2);
+    }
+
+
+    /**
+     * Gets the total time spent waiting in takeLevel1 and takeLevel2 for a level
+     * that had not finished building.
+     *
+     * @return The waiting time in nanoseconds, 0 if every level was ready in time
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+
+    private <T extends GamePlayScreen> T take(CompletableFuture<T> level) {
+        if (level.isDone()) {
+            return level.join();
+        }
+        long startTime = System.nanoTime();
+        T ready = level.join();
+        waitNanos += System.nanoTime() - startTime;
+        return ready;
+    }
+
+    private static void startWorker(Runnable task) {
+        Thread thread = new Thread(task, "level-prefetch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
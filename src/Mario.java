@@ -1,6 +1,4 @@
 import bagel.*;
-import bagel.util.Point;
-import bagel.util.Rectangle;
 
 import java.util.ArrayList;
 
@@ -21,12 +19,12 @@ public class Mario extends GravityApplyingEntity {
     private static final double MAX_JUMP_HEIGHT = 62.5;
 
     // images for Mario's different states
-    private static final Image MARIO_RIGHT_IMG = new Image("res/mario_right.png");
-    private final Image MARIO_LEFT_IMG = new Image("res/mario_left.png");
-    private final Image MARIO_HAMMER_RIGHT = new Image("res/mario_hammer_right.png");
-    private final Image MARIO_HAMMER_LEFT = new Image("res/mario_hammer_left.png");
-    private static final Image MARIO_BLASTER_RIGHT = new Image("res/mario_blaster_right.png");
-    private static final Image MARIO_BLASTER_LEFT = new Image("res/mario_blaster_left.png");
+    private static final Sprite MARIO_RIGHT_IMG = Assets.sprite("res/mario_right.png");
+    private static final Sprite MARIO_LEFT_IMG = Assets.sprite("res/mario_left.png");
+    private static final Sprite MARIO_HAMMER_RIGHT = Assets.sprite("res/mario_hammer_right.png");
+    private static final Sprite MARIO_HAMMER_LEFT = Assets.sprite("res/mario_hammer_left.png");
+    private static final Sprite MARIO_BLASTER_RIGHT = Assets.sprite("res/mario_blaster_right.png");
+    private static final Sprite MARIO_BLASTER_LEFT = Assets.sprite("res/mario_blaster_left.png");
 
     // state tracking for Mario
     private double velocityY = 0.0;
@@ -39,26 +37,15 @@ public class Mario extends GravityApplyingEntity {
     private boolean hasHammer = false;
     private boolean isJumping = false;
     private boolean facingRight = true;
-    private Image currImage = MARIO_RIGHT_IMG;
     private boolean hasBlaster = false;
     private int bulletCount = 0;
 
-    // previous‐frame position for jump‑over detection for barrels
-    private Point marioPrevPos;
+    // previous‐frame vertical position for jump‑over detection for barrels
+    private double marioPrevY;
 
 
-    public Mario(double x, double y) {
-        super(x, y, MARIO_RIGHT_IMG, GRAVITY);
-    }
-
-
-    /**
-     * Ensures to render correct, updated image since Mario has dynamic images.
-     */
-    @Override
-    public void draw() {
-        updateImage();
-        this.currImage.draw(this.getPosX(), this.getPosY());
+    public Mario(EntityStore store, double x, double y) {
+        super(store, x, y, MARIO_RIGHT_IMG, GRAVITY);
     }
 
 
@@ -78,16 +65,16 @@ public class Mario extends GravityApplyingEntity {
      * Check if Mario is on a platform or if is climbing a ladder and then
      * implement the alignment logic to the platforms.
      *
-     * @param platforms  array of all platforms
+     * @param platforms  index of all platforms
      */
     @Override
-    protected void alignToPlatforms(ArrayList<Platform> platforms) {
+    protected void alignToPlatforms(PlatformIndex platforms) {
         // Find if Mario is on any one of the platforms
         Platform platform = onThisPlatform(platforms);
 
         // Only align Mario to the platform if he isn’t currently climbing.
         if (platform != null && !isClimbing) {
-            this.setPosY(platform.getBounds().top() - halfImageHeight(currImage));
+            this.setPosY(platform.getTop() - halfImageHeight(getEntityImage()));
 
             // Reset vertical state now that Mario is landed
             this.onPlatform = true;
@@ -97,24 +84,13 @@ public class Mario extends GravityApplyingEntity {
     }
 
 
-    /**
-     * Ensures to get correct bounding rectangles since Mario has dynamic images.
-     *
-     * @return A Rectangle representing Mario’s current bounds
-     */
-    @Override
-    public Rectangle getBounds() {
-        return this.currImage.getBoundingBoxAt(this.getPos());
-    }
-
-
     /**
      * Applies gravity and platform alignment for Mario (no input logic).
      *
-     * @param platforms List of platforms to align against
+     * @param platforms Index of platforms to align against
      */
     @Override
-    public void update(ArrayList<Platform> platforms) {
+    public void update(PlatformIndex platforms) {
         applyGravity();
         alignToPlatforms(platforms);
     }
@@ -125,10 +101,10 @@ public class Mario extends GravityApplyingEntity {
      * left/right, climbing up/down, and initiating jumps.
      *
      * @param input    current keyboard input
-     * @param platforms list of platforms for collision checks
+     * @param platforms index of platforms for collision checks
      * @param ladders   list of ladders for climbing logic
      */
-    public void updateLevel1(Input input, ArrayList<Platform> platforms, ArrayList<Ladder> ladders) {
+    public void updateLevel1(FrameInput input, PlatformIndex platforms, ArrayList<Ladder> ladders) {
         getPreviousPos();
 
         update(platforms);
@@ -138,7 +114,8 @@ public class Mario extends GravityApplyingEntity {
         moveVertical(input, ladders);
         allowJumping(input);
 
-        draw();
+        // Image affects Mario's bounds, so keep it in step with his state
+        updateImage();
     }
 
 
@@ -147,10 +124,10 @@ public class Mario extends GravityApplyingEntity {
      * left/right, climbing up/down, and initiating jumps.
      *
      * @param input    current keyboard input
-     * @param platforms list of platforms for collision checks
+     * @param platforms index of platforms for collision checks
      * @param ladders   list of ladders for climbing logic
      */
-    public void updateLevel2(Input input, ArrayList<Platform> platforms, ArrayList<Ladder> ladders) {
+    public void updateLevel2(FrameInput input, PlatformIndex platforms, ArrayList<Ladder> ladders) {
         getPreviousPos();
 
         update(platforms);
@@ -160,7 +137,57 @@ public class Mario extends GravityApplyingEntity {
         moveVertical(input, ladders);
         allowJumping(input);
 
-        draw();
+        // Image affects Mario's bounds, so keep it in step with his state
+        updateImage();
+    }
+
+
+    /**
+     * Writes Mario's position together with his movement, climbing and weapon state.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeDouble(velocityY);
+        out.writeDouble(jumpStartY);
+        out.writeBoolean(onPlatform);
+        out.writeBoolean(onLadder);
+        out.writeBoolean(canClimbDown);
+        out.writeBoolean(hitPlatform);
+        out.writeBoolean(isClimbing);
+        out.writeBoolean(hasHammer);
+        out.writeBoolean(isJumping);
+        out.writeBoolean(facingRight);
+        out.writeBoolean(hasBlaster);
+        out.writeInt(bulletCount);
+        out.writeDouble(marioPrevY);
+    }
+
+
+    /**
+     * Restores the state written by saveState, along with the matching image.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        this.velocityY = in.readDouble();
+        this.jumpStartY = in.readDouble();
+        this.onPlatform = in.readBoolean();
+        this.onLadder = in.readBoolean();
+        this.canClimbDown = in.readBoolean();
+        this.hitPlatform = in.readBoolean();
+        this.isClimbing = in.readBoolean();
+        this.hasHammer = in.readBoolean();
+        this.isJumping = in.readBoolean();
+        this.facingRight = in.readBoolean();
+        this.hasBlaster = in.readBoolean();
+        this.bulletCount = in.readInt();
+        this.marioPrevY = in.readDouble();
+        updateImage();
     }
 
 
@@ -171,7 +198,7 @@ public class Mario extends GravityApplyingEntity {
      * @return true if Mario intersects with the entity
      */
     public boolean marioCollidesWith(Entity entity) {
-        return this.getBounds().intersects(entity.getBounds());
+        return this.intersects(entity);
     }
 
 
@@ -196,7 +223,8 @@ public class Mario extends GravityApplyingEntity {
      * @param blasters List of blasters to check for collision
      */
     public void checkBlasters(ArrayList<Blaster> blasters) {
-        for (Blaster blaster : blasters) {
+        for (int i = 0; i < blasters.size(); i++) {
+            Blaster blaster = blasters.get(i);
             if (!blaster.isCollected() && marioCollidesWith(blaster)) {
                 this.hasBlaster = true;
                 this.hasHammer = false;
@@ -211,15 +239,17 @@ public class Mario extends GravityApplyingEntity {
      * Fires a bullet in the current direction if Mario has a blaster and ammo.
      *
      * @param input The keyboard input
-     * @return A new Bullet if a shot is fired, or null otherwise
+     * @param bullets The pool to fire the bullet from
+     * @return true if a shot is fired, false otherwise
      */
-    public Bullet shootBullet(Input input) {
+    public boolean shootBullet(FrameInput input, ProjectilePool<Bullet> bullets) {
         // If user pressed "S" as keyboard input, mario has blaster and bullet remaining
         if (input.wasPressed(Keys.S) && hasBlaster && bulletCount > 0) {
-            // Creates and returns a new bullet
-            return new Bullet(this.getPosX(), this.getPosY(), this.isFacingRight());
+            // Fires a bullet, reusing a spent one if possible
+            bullets.spawn(this.getPosX(), this.getPosY(), this.isFacingRight());
+            return true;
         }
-        return null;
+        return false;
     }
 
 
@@ -241,12 +271,11 @@ public class Mario extends GravityApplyingEntity {
      * @return true if Mario successfully jumped over the barrel
      */
     public boolean jumpedOverBarrel(Barrel barrel) {
-        Rectangle barrelBounds = barrel.getBounds();
-        double prevMarioBottom = marioPrevPos.y + halfImageHeight(currImage);
+        double prevMarioBottom = marioPrevY + halfImageHeight(getEntityImage());
 
         // Check when Mario is vertically moving above barrel
-        boolean verticalJumpedOver = (prevMarioBottom >= barrelBounds.top()) &&
-                (this.getBounds().bottom() < barrelBounds.top());
+        boolean verticalJumpedOver = (prevMarioBottom >= barrel.getTop()) &&
+                (this.getBottom() < barrel.getTop());
 
         // Flag the barrel if satisfying a vertical jumped-over
         if (!barrel.isJumped() && this.isJumping && verticalJumpedOver) {
@@ -254,9 +283,9 @@ public class Mario extends GravityApplyingEntity {
         }
 
         // Reward points if sure that Mario is actually jumping over
-        if (barrel.isJumped() && this.isJumping && this.getPosY() < barrelBounds.top()) {
+        if (barrel.isJumped() && this.isJumping && this.getPosY() < barrel.getTop()) {
             // When horizontal overlapping is also satisfied
-            if (this.getPosX() > barrelBounds.left() && this.getPosX() < barrelBounds.right()) {
+            if (this.getPosX() > barrel.getLeft() && this.getPosX() < barrel.getRight()) {
                 // Reset flag to allow multiple scoring for one barrel
                 barrel.resetJumped();
                 return true;
@@ -271,7 +300,7 @@ public class Mario extends GravityApplyingEntity {
      *
      * @param input current keyboard input
      */
-    private void moveHorizontal(Input input) {
+    private void moveHorizontal(FrameInput input) {
         if(input.isDown(Keys.LEFT)) {
             this.setPosX(this.getPosX() - MOVE_SPEED);
             facingRight = false;
@@ -292,7 +321,7 @@ public class Mario extends GravityApplyingEntity {
      * @param input current keyboard input
      * @param ladders all ladders
      */
-    private void moveVertical(Input input, ArrayList<Ladder> ladders) {
+    private void moveVertical(FrameInput input, ArrayList<Ladder> ladders) {
 
         trackLadderCollision(ladders);
 
@@ -328,18 +357,15 @@ public class Mario extends GravityApplyingEntity {
         this.canClimbDown = false;
         this.hitPlatform = false;
 
-        Rectangle marioBounds = this.getBounds();
-        Point MarioBottomCentre = new Point(this.getPosX(), marioBounds.bottom());
-
-        for (Ladder ladder : ladders) {
-            Rectangle ladderBounds = ladder.getBounds();
+        for (int i = 0; i < ladders.size(); i++) {
+            Ladder ladder = ladders.get(i);
             // Track when mario is inside/climbing a ladder
-            if (marioBounds.intersects(ladder.getBounds()) && isCenterLadder(ladder)) {
+            if (this.intersects(ladder) && isCenterLadder(ladder)) {
                 this.onLadder = true;
-                this.hitPlatform = marioBounds.bottom() == ladderBounds.bottom();
+                this.hitPlatform = this.getBottom() == ladder.getBottom();
             }
             // Track when mario is on top of a ladder
-            if (ladderBounds.intersects(MarioBottomCentre)) {
+            if (ladder.containsPoint(this.getPosX(), this.getBottom())) {
                 this.canClimbDown = true;
             }
         }
@@ -348,14 +374,14 @@ public class Mario extends GravityApplyingEntity {
 
     private boolean isCenterLadder(Ladder ladder) {
         double centerX = this.getPosX();
-        return (centerX >= ladder.getBounds().left()) && (centerX <= ladder.getBounds().right());
+        return (centerX >= ladder.getLeft()) && (centerX <= ladder.getRight());
     }
 
 
     /**
      * Handle jumping based on keyboard input.
      */
-    private void allowJumping(Input input) {
+    private void allowJumping(FrameInput input) {
         if (input.wasPressed(Keys.SPACE)) {
             if (!isJumping && onPlatform) {
                 isJumping = true;
@@ -374,21 +400,12 @@ public class Mario extends GravityApplyingEntity {
 
 
     /**
-     * Checks and returns a platform if Mario is on top of any one in the array.
+     * Checks and returns a platform if Mario is on top of any one in the index.
      */
-    private Platform onThisPlatform(ArrayList<Platform> platforms) {
-        Point marioBottomCentre = new Point(this.getPosX(), this.getBounds().bottom());
-
-        for(Platform platform : platforms) {
-            Rectangle platformBounds = platform.getBounds();
-            if (platformBounds.intersects(marioBottomCentre) && this.getPosY() < platform.getPosY()) {
-                this.onPlatform = true;
-                return platform;
-            } else {
-                this.onPlatform = false;
-            }
-        }
-        return null;
+    private Platform onThisPlatform(PlatformIndex platforms) {
+        Platform platform = platforms.findContaining(this.getPosX(), this.getBottom(), this.getPosY());
+        this.onPlatform = (platform != null);
+        return platform;
     }
 
 
@@ -396,7 +413,7 @@ public class Mario extends GravityApplyingEntity {
      * Limits Mario to the screen edges.
      */
     private void limitToScreenEdges() {
-        double marioWidth = this.currImage.getWidth();
+        double marioWidth = this.getEntityImage().getWidth();
         double maxX = Math.max(marioWidth/2.0, Math.min(this.getPosX(),
                 (ShadowDonkeyKong.getScreenWidth() - marioWidth/2.0)));
         this.setPosX(maxX);
@@ -407,7 +424,7 @@ public class Mario extends GravityApplyingEntity {
      * Gets the previous position of Mario to help handling barrel jumping-over detection.
      */
     private void getPreviousPos() {
-        this.marioPrevPos = new Point(this.getPosX(), this.getPosY());
+        this.marioPrevY = this.getPosY();
     }
 
 
@@ -416,11 +433,11 @@ public class Mario extends GravityApplyingEntity {
      */
     private void updateImage() {
         if (hasHammer) {
-            this.currImage = (facingRight) ? MARIO_HAMMER_RIGHT : MARIO_HAMMER_LEFT;
+            this.setEntityImage((facingRight) ? MARIO_HAMMER_RIGHT : MARIO_HAMMER_LEFT);
         } else if (hasBlaster) {
-            this.currImage = (facingRight) ? MARIO_BLASTER_RIGHT : MARIO_BLASTER_LEFT;
+            this.setEntityImage((facingRight) ? MARIO_BLASTER_RIGHT : MARIO_BLASTER_LEFT);
         } else {
-            this.currImage = (facingRight) ? MARIO_RIGHT_IMG : MARIO_LEFT_IMG;
+            this.setEntityImage((facingRight) ? MARIO_RIGHT_IMG : MARIO_LEFT_IMG);
         }
     }
 
@@ -1,47 +1,45 @@
-import bagel.Image;
-import bagel.util.Rectangle;
-import java.util.ArrayList;
-
 /**
  * Represents a monkey entity in Level 2 that moves along platforms
  * following a predefined walking route.
  *
  * Monkeys are affected by gravity, patrols on platforms, and turn around at
  * the edge of their platform, screen boundaries, or after completing a route segment.
+ *
+ * Position, distance travelled, facing direction and whether the monkey is still
+ * alive are kept in the monkey's EntityStore slot.
  */
 public abstract class Monkey extends GravityApplyingEntity implements AutomatedMovable {
 
     private static final double MOVE_SPEED = 0.5;
     private static final double MONKEY_GRAVITY = 0.4;
-    private final Image rightImage;
-    private final Image leftImage;
+    private final Sprite rightImage;
+    private final Sprite leftImage;
 
-    private ArrayList<Integer> route = new ArrayList<>();
-    private boolean facingRight;
-    private boolean isAppear = true;
-    private double distanceTravelled = 0;
+    private final int[] route;
     private int currRouteIndex = 0;
 
 
-    public Monkey(double x, double y, boolean facingRight, ArrayList<Integer> route,
-                  Image rightImage, Image leftImage) {
-        super(x, y, rightImage, MONKEY_GRAVITY);
+    public Monkey(EntityStore store, double x, double y, boolean facingRight, int[] route,
+                  Sprite rightImage, Sprite leftImage) {
+        super(store, x, y, rightImage, MONKEY_GRAVITY);
         this.rightImage = rightImage;
         this.leftImage = leftImage;
         this.route = route;
-        this.facingRight = facingRight;
+        store.setFacingRight(getSlot(), facingRight);
     }
 
 
     /**
      * Draws the monkey using the appropriate image based on its current direction.
      * The monkey is not rendered if it has been destroyed.
+     *
+     * @param buffer The frame's draw commands
      */
     @Override
-    public void draw() {
-        if (this.isAppear) {
-            Image currentImage = this.facingRight ? rightImage : leftImage;
-            currentImage.draw(getPosX(), getPosY());
+    public void draw(RenderBuffer buffer) {
+        if (isAppear()) {
+            Sprite currentImage = isFacingRight() ? rightImage : leftImage;
+            drawImage(buffer, currentImage);
         }
     }
 
@@ -52,25 +50,55 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
      */
     @Override
     public void move() {
-        double velocityX = this.facingRight ? MOVE_SPEED : -MOVE_SPEED;
+        double velocityX = isFacingRight() ? MOVE_SPEED : -MOVE_SPEED;
         this.setPosX(this.getPosX() + velocityX);
-        this.distanceTravelled += MOVE_SPEED;
+        getStore().distanceTravelled[getSlot()] += MOVE_SPEED;
+    }
+
+
+    /**
+     * Writes the monkey's movement state, whether it is destroyed, its facing
+     * direction and how far along its patrol route it is.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeBoolean(isAppear());
+        out.writeBoolean(isFacingRight());
+        out.writeDouble(getStore().distanceTravelled[getSlot()]);
+        out.writeInt(currRouteIndex);
     }
 
 
     /**
-     * Updates the monkey by applying gravity, aligning to platforms,
-     * handling movement logic, and drawing the entity.
+     * Restores the state written by saveState.
      *
-     * @param platforms List of platforms for collision and edge detection
+     * @param in Where to read the state from
      */
     @Override
-    public void update(ArrayList<Platform> platforms){
-        applyGravity();
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        getStore().setAlive(getSlot(), in.readBoolean());
+        getStore().setFacingRight(getSlot(), in.readBoolean());
+        getStore().distanceTravelled[getSlot()] = in.readDouble();
+        this.currRouteIndex = in.readInt();
+    }
+
+
+    /**
+     * Finishes the monkey's update once gravity has been applied, aligning it to
+     * platforms and handling movement logic. Monkeys keep patrolling, so they never sleep.
+     *
+     * @param platforms Index of platforms for collision and edge detection
+     */
+    @Override
+    public void updateAfterGravity(PlatformIndex platforms) {
+        positionChanged();
         alignToPlatforms(platforms);
 
         moveOnPlatforms(platforms);
-        draw();
     }
 
 
@@ -79,18 +107,18 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
      * Turns around after travelling the specified route segment or reaching the edge of platforms
      * or window edges.
      *
-     * @param platforms List of platforms for edge detection
+     * @param platforms Index of platforms for edge detection
      */
-    private void moveOnPlatforms(ArrayList<Platform> platforms) {
+    private void moveOnPlatforms(PlatformIndex platforms) {
         move();
 
         // Start new patrol route if current is complete or reached platform edges or window edges
-        if ((this.distanceTravelled >= route.get(currRouteIndex))
+        if ((getStore().distanceTravelled[getSlot()] >= route[currRouteIndex])
                 || reachPlatformEdge(platforms) || reachWindowEdge()) {
             // Reset and update attributes for rendering
-            this.distanceTravelled = 0;
-            this.facingRight = !facingRight;
-            this.currRouteIndex = (currRouteIndex + 1) % route.size();
+            getStore().distanceTravelled[getSlot()] = 0;
+            getStore().setFacingRight(getSlot(), !isFacingRight());
+            this.currRouteIndex = (currRouteIndex + 1) % route.length;
         }
     }
 
@@ -98,26 +126,15 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
     /**
      * Checks whether the monkey has reached the edge of the current platform.
      *
-     * @param platforms List of platforms to check
+     * @param platforms Index of platforms to check
      * @return True if the edge is reached, false otherwise
      */
-    private boolean reachPlatformEdge(ArrayList<Platform> platforms) {
-        Rectangle monkeyBounds = this.getBounds();
-
-        for (Platform platform : platforms) {
-            Rectangle platformBounds = platform.getBounds();
-
-            // Found the platform Monkey is currently on
-            if (monkeyBounds.bottom() == platformBounds.top()) {
-                // True if Monkey's right/left edge reached the right/left edge of the platform
-                if (facingRight && monkeyBounds.right() >= platformBounds.right()) {
-                    return true;
-                } else if (!facingRight && monkeyBounds.left() <= platformBounds.left()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean reachPlatformEdge(PlatformIndex platforms) {
+        // Look at the platforms Monkey is currently standing on, and check whether
+        // Monkey's right/left edge reached the right/left edge of any of them
+        boolean facingRight = isFacingRight();
+        double edge = facingRight ? this.getRight() : this.getLeft();
+        return platforms.reachesEdge(this.getBottom(), facingRight, edge);
     }
 
 
@@ -153,7 +170,7 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
      * @return True if facing right, false if facing left
      */
     protected boolean isFacingRight() {
-        return facingRight;
+        return getStore().isFacingRight(getSlot());
     }
 
 
@@ -161,7 +178,7 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
      * Marks the monkey as destroyed, so it will no longer be rendered or updated.
      */
     public void destroy() {
-        isAppear = false;
+        getStore().setAlive(getSlot(), false);
     }
 
     /**
@@ -170,6 +187,6 @@ public abstract class Monkey extends GravityApplyingEntity implements AutomatedM
      * @return True if the monkey is alive, false if destroyed
      */
     public boolean isAppear() {
-        return isAppear;
+        return getStore().isAlive(getSlot());
     }
 }
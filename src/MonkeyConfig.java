@@ -0,0 +1,40 @@
+import java.util.Arrays;
+
+/**
+ * The starting setup of one monkey, as written "x,y;direction;route" in app.properties.
+ *
+ * @param position Where the monkey starts
+ * @param facingRight Whether the monkey starts walking right
+ * @param route The lengths in pixels of each segment of its patrol, walked in turn
+ * @param intelligent Whether it is an IntelligentMonkey rather than a NormalMonkey
+ */
+public record MonkeyConfig(Position position, boolean facingRight, int[] route, boolean intelligent) {
+
+    public MonkeyConfig {
+        route = route.clone();
+    }
+
+    /**
+     * Gets the patrol route. Each monkey built from this setup gets its own copy.
+     *
+     * @return The segment lengths of the route
+     */
+    @Override
+    public int[] route() {
+        return route.clone();
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MonkeyConfig monkey && position.equals(monkey.position)
+                && facingRight == monkey.facingRight && Arrays.equals(route, monkey.route)
+                && intelligent == monkey.intelligent;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * position.hashCode() + Arrays.hashCode(route)) * 4
+                + (facingRight ? 2 : 0) + (intelligent ? 1 : 0);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Lines of on-screen text made of a fixed label followed by a number, such as the
+ * score or the time remaining.
+ *
+ * The text for each number up to a limit is built the first time it is needed and
+ * kept, so screens can draw it every frame without allocating a new string each
+ * time, and every level showing the same label shares the texts already built.
+ * Larger numbers are built again each time.
+ *
+ * Safe to share between threads: two threads building the same text at once build
+ * equal strings, so it does not matter which one is kept.
+ */
+public class NumberText {
+
+    private final String label;
+    private final String[] texts;
+
+
+    /**
+     * Creates the texts for a label, none of them built yet.
+     *
+     * @param label The text shown before the number
+     * @param cachedValues How many numbers, from 0, have their text kept once built
+     */
+    public NumberText(String label, int cachedValues) {
+        if (cachedValues < 0) {
+            throw new IllegalArgumentException("cachedValues must not be negative: " + cachedValues);
+        }
+        this.label = label;
+        this.texts = new String[cachedValues];
+    }
+
+
+    /**
+     * Gets the label followed by a number.
+     *
+     * @param value The number to show
+     * @return The text to draw
+     */
+    public String get(int value) {
+        if (value < 0 || value >= texts.length) {
+            return label + value;
+        }
+        String text = texts[value];
+        if (text == null) {
+            text = label + value;
+            texts[value] = text;
+        }
+        return text;
+    }
+}
@@ -1,13 +1,11 @@
-import bagel.*;
-
 /**
  * This class represents stationary platform entity.
  */
 public class Platform extends Entity {
 
-    private static final Image PLATFORM_IMG = new Image("res/platform.png");
+    private static final Sprite PLATFORM_IMG = Assets.sprite("res/platform.png");
 
-    public Platform(double x, double y) {
-        super(x, y, PLATFORM_IMG);
+    public Platform(EntityStore store, double x, double y) {
+        super(store, x, y, PLATFORM_IMG);
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An immutable index over a level's platforms for fast ground lookups.
+ *
+ * Platforms never move, so they are grouped once into horizontal bands by their top
+ * edge, and each band is sorted by left edge. Lookups binary-search the bands and the
+ * platforms within them, so finding the platform under an entity takes logarithmic
+ * time instead of a scan over every platform.
+ *
+ * When several platforms match, the one that comes first in the original list is
+ * returned, exactly as the previous linear scans did.
+ */
+public class PlatformIndex {
+
+    // Slack added to the search ranges so rounding in edge arithmetic never excludes a match;
+    // every candidate is still checked exactly against its bounds
+    private static final double SEARCH_MARGIN = 1.0;
+
+    private final ArrayList<Platform> platforms;
+    private final double maxHeight;
+
+    // Bands of platforms sharing a top edge, sorted by that edge
+    private final double[] bandTops;
+    private final Band[] bands;
+
+
+    public PlatformIndex(ArrayList<Platform> platforms) {
+        this.platforms = new ArrayList<>(platforms);
+
+        // Sort platform positions in the list by top edge, then by left edge
+        Integer[] order = new Integer[platforms.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> platforms.get(i).getTop())
+                .thenComparingDouble(i -> platforms.get(i).getLeft()));
+
+        // Split the sorted platforms into bands of equal top edge
+        ArrayList<Band> bandList = new ArrayList<>();
+        int start = 0;
+        while (start < order.length) {
+            int end = start;
+            double top = platforms.get(order[start]).getTop();
+            while (end < order.length && platforms.get(order[end]).getTop() == top) {
+                end++;
+            }
+            bandList.add(new Band(platforms, Arrays.copyOfRange(order, start, end)));
+            start = end;
+        }
+
+        double tallest = 0;
+        for (Platform platform : platforms) {
+            tallest = Math.max(tallest, platform.getBottom() - platform.getTop());
+        }
+        this.maxHeight = tallest;
+        this.bands = bandList.toArray(new Band[0]);
+        this.bandTops = new double[bands.length];
+        for (int i = 0; i < bands.length; i++) {
+            bandTops[i] = bands[i].top;
+        }
+    }
+
+
+    /**
+     * Finds the first platform whose bounding box intersects the entity's.
+     *
+     * @param entity The entity to check
+     * @return The first intersecting platform, or null if there is none
+     */
+    public Platform findIntersecting(Entity entity) {
+        int best = -1;
+        int band = firstBandFrom(entity.getTop() - maxHeight - SEARCH_MARGIN);
+
+        for (; band < bands.length && bandTops[band] <= entity.getBottom(); band++) {
+            Band current = bands[band];
+            int i = current.firstFrom(entity.getLeft() - current.maxWidth - SEARCH_MARGIN);
+            for (; i < current.lefts.length && current.lefts[i] <= entity.getRight(); i++) {
+                int index = current.indices[i];
+                if ((best < 0 || index < best) && platforms.get(index).intersects(entity)) {
+                    best = index;
+                }
+            }
+        }
+        return (best < 0) ? null : platforms.get(best);
+    }
+
+
+    /**
+     * Finds the first platform containing the given point whose centre is below the given height.
+     *
+     * @param x The x-coordinate of the point
+     * @param y The y-coordinate of the point
+     * @param aboveY Only platforms whose centre y-coordinate is greater than this are matched
+     * @return The first matching platform, or null if there is none
+     */
+    public Platform findContaining(double x, double y, double aboveY) {
+        int best = -1;
+        int band = firstBandFrom(y - maxHeight - SEARCH_MARGIN);
+
+        for (; band < bands.length && bandTops[band] <= y; band++) {
+            Band current = bands[band];
+            int i = current.firstFrom(x - current.maxWidth - SEARCH_MARGIN);
+            for (; i < current.lefts.length && current.lefts[i] <= x; i++) {
+                int index = current.indices[i];
+                Platform platform = platforms.get(index);
+                if ((best < 0 || index < best) && platform.containsPoint(x, y) && aboveY < platform.getPosY()) {
+                    best = index;
+                }
+            }
+        }
+        return (best < 0) ? null : platforms.get(best);
+    }
+
+
+    /**
+     * Checks whether a platform whose top edge is exactly at the given height ends at
+     * or before the given edge, in the given direction.
+     *
+     * @param top The height of the platform tops to consider
+     * @param facingRight true to look for a platform whose right edge is at or left of the edge,
+     *                    false for one whose left edge is at or right of the edge
+     * @param edge The x-coordinate of the edge being checked
+     * @return true if such a platform exists
+     */
+    public boolean reachesEdge(double top, boolean facingRight, double edge) {
+        int band = Arrays.binarySearch(bandTops, top);
+        if (band < 0) {
+            return false;
+        }
+        return facingRight ? bands[band].minRight <= edge : bands[band].maxLeft >= edge;
+    }
+
+
+    /**
+     * Returns the index of the first band whose top edge is at or below the given height.
+     */
+    private int firstBandFrom(double top) {
+        return lowerBound(bandTops, top);
+    }
+
+    /**
+     * Returns the index of the first value not less than the key in a sorted array.
+     */
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * A horizontal band of platforms sharing the same top edge, sorted by left edge.
+     */
+    private static final class Band {
+        private final double top;
+        private final double[] lefts;
+        private final int[] indices;
+        private final double maxWidth;
+        private final double minRight;
+        private final double maxLeft;
+
+        private Band(ArrayList<Platform> platforms, Integer[] sortedIndices) {
+            this.top = platforms.get(sortedIndices[0]).getTop();
+            this.lefts = new double[sortedIndices.length];
+            this.indices = new int[sortedIndices.length];
+
+            double widest = 0;
+            double smallestRight = Double.POSITIVE_INFINITY;
+            double largestLeft = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < sortedIndices.length; i++) {
+                Platform platform = platforms.get(sortedIndices[i]);
+                lefts[i] = platform.getLeft();
+                indices[i] = sortedIndices[i];
+                widest = Math.max(widest, platform.getRight() - platform.getLeft());
+                smallestRight = Math.min(smallestRight, platform.getRight());
+                largestLeft = Math.max(largestLeft, platform.getLeft());
+            }
+            this.maxWidth = widest;
+            this.minRight = smallestRight;
+            this.maxLeft = largestLeft;
+        }
+
+        private int firstFrom(double left) {
+            return lowerBound(lefts, left);
+        }
+    }
+}
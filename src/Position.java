@@ -0,0 +1,8 @@
+/**
+ * A point on the screen, as written "x,y" in app.properties.
+ *
+ * @param x The x-coordinate in pixels
+ * @param y The y-coordinate in pixels
+ */
+public record Position(double x, double y) {
+}
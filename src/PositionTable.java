@@ -0,0 +1,97 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable list of positions, such as every barrel of a level, kept as two
+ * primitive arrays rather than one object per position.
+ *
+ * Levels can hold hundreds of thousands of entities, so their layouts are read
+ * straight into these arrays (see LevelFile) and entities are built from them
+ * without creating a Position for each.
+ */
+public final class PositionTable {
+
+    public static final PositionTable EMPTY = new PositionTable(new double[0], new double[0]);
+
+    private final double[] xs;
+    private final double[] ys;
+
+
+    /**
+     * Creates a table that takes ownership of the given arrays, which must not be
+     * changed afterwards.
+     *
+     * @param xs The x-coordinate of each position
+     * @param ys The y-coordinate of each position, as many as xs
+     */
+    PositionTable(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Got " + xs.length + " x-coordinates but " + ys.length + " y-coordinates");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Creates a table holding the given positions, in order.
+     *
+     * @param positions The positions
+     * @return The table
+     */
+    public static PositionTable of(List<Position> positions) {
+        double[] xs = new double[positions.size()];
+        double[] ys = new double[positions.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = positions.get(i).x();
+            ys[i] = positions.get(i).y();
+        }
+        return new PositionTable(xs, ys);
+    }
+
+
+    /**
+     * Gets the number of positions in the table.
+     *
+     * @return The position count
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Gets the x-coordinate of a position.
+     *
+     * @param index The index of the position, from 0
+     * @return Its x-coordinate
+     */
+    public double x(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Gets the y-coordinate of a position.
+     *
+     * @param index The index of the position, from 0
+     * @return Its y-coordinate
+     */
+    public double y(int index) {
+        return ys[index];
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PositionTable table
+                && Arrays.equals(xs, table.xs) && Arrays.equals(ys, table.ys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(xs) + Arrays.hashCode(ys);
+    }
+
+    @Override
+    public String toString() {
+        return "PositionTable[size=" + xs.length + "]";
+    }
+}
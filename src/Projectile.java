@@ -0,0 +1,136 @@
+/**
+ * The base class for projectiles (bullets and bananas) that fly horizontally
+ * until they have travelled a maximum distance or hit something.
+ *
+ * Projectiles can be reset and reused once spent, so a ProjectilePool can recycle
+ * them instead of creating new objects for every shot. Their position, distance
+ * travelled, direction and whether they are still in flight are kept in their
+ * EntityStore slot.
+ */
+public abstract class Projectile extends Entity implements AutomatedMovable {
+
+    private final double moveSpeed;
+    private final double maxDistance;
+
+
+
+    public Projectile(EntityStore store, double x, double y, boolean shootingRight, Sprite image,
+                      double moveSpeed, double maxDistance) {
+        super(store, x, y, image);
+        store.setFacingRight(getSlot(), shootingRight);
+        this.moveSpeed = moveSpeed;
+        this.maxDistance = maxDistance;
+    }
+
+
+    /**
+     * Moves the projectile horizontally in its firing direction,
+     * and updates the total distance travelled.
+     */
+    @Override
+    public void move() {
+        double velocityX = isShootingRight() ? moveSpeed : -moveSpeed;
+        this.setPosX(this.getPosX() + velocityX);
+        getStore().distanceTravelled[getSlot()] += moveSpeed;
+    }
+
+
+    /**
+     * Moves the projectile if it is still active and within range,
+     * otherwise marks it as spent.
+     */
+    protected void moveWithinRange() {
+        if (isAppear() && getStore().distanceTravelled[getSlot()] < maxDistance) {
+            move();
+        } else {
+            disappear();
+        }
+    }
+
+
+    /**
+     * Puts a spent projectile back into play as if newly fired.
+     *
+     * @param x The x-coordinate to fire from
+     * @param y The y-coordinate to fire from
+     * @param shootingRight The direction to fly in
+     */
+    public void reset(double x, double y, boolean shootingRight) {
+        EntityStore store = getStore();
+        this.setPos(x, y);
+        store.snapToCurrentPosition(getSlot());
+        store.setFacingRight(getSlot(), shootingRight);
+        store.distanceTravelled[getSlot()] = 0;
+        store.setAlive(getSlot(), true);
+    }
+
+
+    /**
+     * Writes the projectile's position, direction, distance travelled and whether
+     * it is still in flight.
+     *
+     * @param out Where to write the state
+     */
+    @Override
+    public void saveState(StateWriter out) {
+        super.saveState(out);
+        out.writeBoolean(isShootingRight());
+        out.writeDouble(getStore().distanceTravelled[getSlot()]);
+        out.writeBoolean(isAppear());
+    }
+
+
+    /**
+     * Restores the state written by saveState.
+     *
+     * @param in Where to read the state from
+     */
+    @Override
+    public void loadState(StateReader in) {
+        super.loadState(in);
+        getStore().setFacingRight(getSlot(), in.readBoolean());
+        getStore().distanceTravelled[getSlot()] = in.readDouble();
+        getStore().setAlive(getSlot(), in.readBoolean());
+    }
+
+
+    /**
+     * Only renders if the projectile is still active.
+     *
+     * @param buffer The frame's draw commands
+     */
+    @Override
+    public void draw(RenderBuffer buffer) {
+        if (isAppear()) {
+            super.draw(buffer);
+        }
+    }
+
+
+    /**
+     * Checks if the projectile is still active and visible in the game.
+     *
+     * @return True if the projectile is active, false if spent
+     */
+    public boolean isAppear() {
+        return getStore().isAlive(getSlot());
+    }
+
+
+    /**
+     * Marks the projectile as spent so it is no longer updated or drawn.
+     */
+    public void disappear() {
+        getStore().setAlive(getSlot(), false);
+    }
+
+
+    /**
+     * Returns the direction the projectile is flying in.
+     *
+     * @return True if flying right, false if flying left
+     */
+    protected boolean isShootingRight() {
+        return getStore().isFacingRight(getSlot());
+    }
+}
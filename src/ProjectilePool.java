@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the projectiles in flight and recycles spent ones.
+ *
+ * Spawning reuses a spent projectile when one is available, and spent projectiles
+ * are moved out of the active list every frame, so the per-frame cost only depends
+ * on how many projectiles are actually flying. Every spent projectile is kept for
+ * reuse, as each one holds a slot in the level's EntityStore that is never freed;
+ * the pool therefore only ever holds as many projectiles as were once in flight
+ * together, so memory stays bounded however long the game runs.
+ *
+ * @param <T> The type of projectile in the pool
+ */
+public class ProjectilePool<T extends Projectile> {
+
+    private final Supplier<T> factory;
+
+    // Projectiles in flight, in the order they were fired, and spent ones ready for reuse
+    private final ArrayList<T> active = new ArrayList<>();
+    private final ArrayList<T> spare = new ArrayList<>();
+
+
+    public ProjectilePool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+
+    /**
+     * Fires a projectile, reusing a spent one if possible.
+     *
+     * @param x The x-coordinate to fire from
+     * @param y The y-coordinate to fire from
+     * @param shootingRight The direction to fly in
+     * @return The projectile now in flight
+     */
+    public T spawn(double x, double y, boolean shootingRight) {
+        T projectile = spare.isEmpty() ? factory.get() : spare.remove(spare.size() - 1);
+        projectile.reset(x, y, shootingRight);
+        active.add(projectile);
+        return projectile;
+    }
+
+
+    /**
+     * Creates spent projectiles up front, so the first ones fired during play do not
+     * allocate.
+     *
+     * @param count The number of spare projectiles to have ready
+     */
+    public void reserve(int count) {
+        active.ensureCapacity(count);
+        spare.ensureCapacity(count);
+        while (spare.size() < count) {
+            T projectile = factory.get();
+            projectile.disappear();
+            spare.add(projectile);
+        }
+    }
+
+
+    /**
+     * Moves all spent projectiles out of the active list, keeping the firing order
+     * of the rest, and keeps them all for reuse.
+     */
+    public void releaseSpent() {
+        int kept = 0;
+        for (int i = 0; i < active.size(); i++) {
+            T projectile = active.get(i);
+            if (projectile.isAppear()) {
+                active.set(kept++, projectile);
+            } else {
+                spare.add(projectile);
+            }
+        }
+        while (active.size() > kept) {
+            active.remove(active.size() - 1);
+        }
+    }
+
+
+    /**
+     * Writes the number of projectiles in flight followed by the state of each,
+     * in firing order.
+     *
+     * @param out Where to write the state
+     */
+    public void saveState(StateWriter out) {
+        out.writeInt(active.size());
+        for (int i = 0; i < active.size(); i++) {
+            active.get(i).saveState(out);
+        }
+    }
+
+
+    /**
+     * Replaces the projectiles in flight with those written by saveState,
+     * reusing spent projectiles where possible.
+     *
+     * @param in Where to read the state from
+     */
+    public void loadState(StateReader in) {
+        for (int i = 0; i < active.size(); i++) {
+            active.get(i).disappear();
+        }
+        releaseSpent();
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            spawn(0, 0, false).loadState(in);
+        }
+    }
+
+
+    /**
+     * Gets the projectiles currently in flight, in the order they were fired.
+     *
+     * @return The active projectiles
+     */
+    public ArrayList<T> getActive() {
+        return active;
+    }
+}
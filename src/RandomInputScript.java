@@ -0,0 +1,65 @@
+import bagel.*;
+import java.util.SplittableRandom;
+
+/**
+ * A seeded input script that imitates a player wandering around the level.
+ *
+ * It holds a random direction (and sometimes UP or DOWN) for a random number of frames,
+ * and occasionally jumps or shoots. The same seed always produces the same inputs.
+ */
+public class RandomInputScript implements InputScript {
+
+    // Constants for how long an action is held and how often buttons are pressed
+    private static final int MIN_HOLD_FRAMES = 15;
+    private static final int MAX_HOLD_FRAMES = 90;
+    private static final double JUMP_CHANCE = 0.02;
+    private static final double SHOOT_CHANCE = 0.01;
+
+    private final SplittableRandom random;
+
+    // The action currently being held
+    private int framesLeft = 0;
+    private Keys horizontalKey;
+    private Keys verticalKey;
+
+
+    public RandomInputScript(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Fills in the keys held and pressed for the given frame.
+     *
+     * @param frame The frame number, starting from 0
+     * @param input The input to fill in, already cleared
+     */
+    @Override
+    public void fill(int frame, FrameInput input) {
+        if (framesLeft <= 0) {
+            chooseNextAction();
+        }
+        framesLeft--;
+
+        if (horizontalKey != null) {
+            input.setDown(horizontalKey, true);
+        }
+        if (verticalKey != null) {
+            input.setDown(verticalKey, true);
+        }
+        input.setPressed(Keys.SPACE, random.nextDouble() < JUMP_CHANCE);
+        input.setPressed(Keys.S, random.nextDouble() < SHOOT_CHANCE);
+    }
+
+    /**
+     * Picks a new combination of held keys and how long to hold them.
+     */
+    private void chooseNextAction() {
+        this.framesLeft = random.nextInt(MIN_HOLD_FRAMES, MAX_HOLD_FRAMES + 1);
+
+        int horizontal = random.nextInt(3);
+        this.horizontalKey = (horizontal == 0) ? Keys.LEFT : (horizontal == 1) ? Keys.RIGHT : null;
+
+        int vertical = random.nextInt(4);
+        this.verticalKey = (vertical == 0) ? Keys.UP : (vertical == 1) ? Keys.DOWN : null;
+    }
+}
@@ -0,0 +1,411 @@
+import java.util.Arrays;
+
+/**
+ * A list of draw commands for one frame, filled in by the screens and then drawn
+ * with Bagel in a separate pass.
+ *
+ * Screens never draw directly; they add a sprite command for each image and a text
+ * command for each string. The commands are kept in reusable primitive arrays, so
+ * filling the buffer every frame allocates nothing once it has grown to the size of
+ * a frame, and a buffer filled without a window can be inspected to check exactly
+ * what would have been drawn.
+ *
+ * Sprites are drawn in layers, in the order the layers were started, so entities
+ * drawn later still appear on top. Within a layer, sortByImage puts commands for
+ * the same image next to each other, so identical sprites such as barrels are
+ * submitted together. Texts are always drawn last, in the order they were added.
+ *
+ * A moving sprite is added with where it was at the start of the last tick as well
+ * as where it is now, so the window can draw it part of the way between the two
+ * depending on how far real time has moved past that tick, however rarely the
+ * buffer itself is refilled.
+ */
+public class RenderBuffer {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Bits of a sort key given to each part, from most to least significant
+    private static final int INDEX_BITS = 24;
+    private static final int IMAGE_BITS = 20;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long IMAGE_MASK = (1L << IMAGE_BITS) - 1;
+
+    // Sprite commands, in the order they were added
+    private Sprite[] sprites;
+    private double[] spriteX;
+    private double[] spriteY;
+    private double[] startX;
+    private double[] startY;
+    private int[] layers;
+    private int spriteCount = 0;
+    private int layer = 0;
+
+    // The order the sprite commands are drawn in, as indices into the arrays above
+    private int[] order;
+    private long[] sortKeys;
+
+    // Text commands; centred texts have their x-coordinate worked out when drawn
+    private GameFont[] fonts;
+    private String[] texts;
+    private double[] textX;
+    private double[] textY;
+    private boolean[] centred;
+    private int textCount = 0;
+
+    // The simulation tick the commands show, and when it started
+    private long tick = 0;
+    private long tickNanos = 0;
+
+
+    public RenderBuffer(int capacity) {
+        int size = Math.max(1, capacity);
+        this.sprites = new Sprite[size];
+        this.spriteX = new double[size];
+        this.spriteY = new double[size];
+        this.startX = new double[size];
+        this.startY = new double[size];
+        this.layers = new int[size];
+        this.order = new int[size];
+        this.sortKeys = new long[size];
+        this.fonts = new GameFont[size];
+        this.texts = new String[size];
+        this.textX = new double[size];
+        this.textY = new double[size];
+        this.centred = new boolean[size];
+    }
+
+    /**
+     * Creates a buffer with the default capacity.
+     */
+    public RenderBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Removes every command, ready for the next frame.
+     */
+    public void clear() {
+        // Drop references so cleared commands do not keep sprites, fonts and strings alive
+        Arrays.fill(sprites, 0, spriteCount, null);
+        Arrays.fill(fonts, 0, textCount, null);
+        Arrays.fill(texts, 0, textCount, null);
+        spriteCount = 0;
+        textCount = 0;
+        layer = 0;
+    }
+
+
+    /**
+     * Starts a new layer. Sprites added from now on are drawn above every sprite
+     * added before, however the buffer is sorted.
+     */
+    public void nextLayer() {
+        layer++;
+    }
+
+
+    /**
+     * Marks the buffer as showing the game at a tick, once its commands are all added.
+     *
+     * @param tick The simulation tick the commands show
+     * @param tickNanos When that tick started, from System.nanoTime()
+     */
+    public void finish(long tick, long tickNanos) {
+        this.tick = tick;
+        this.tickNanos = tickNanos;
+    }
+
+
+    /**
+     * Adds a command to draw an image centred at a position.
+     *
+     * @param sprite The image to draw
+     * @param x The x-coordinate of the centre
+     * @param y The y-coordinate of the centre
+     */
+    public void drawSprite(Sprite sprite, double x, double y) {
+        drawMovingSprite(sprite, x, y, x, y);
+    }
+
+    /**
+     * Adds a command to draw an image centred somewhere between where it was at the
+     * start of the last tick and where it is now.
+     *
+     * @param sprite The image to draw
+     * @param fromX The x-coordinate of the centre at the start of the tick
+     * @param fromY The y-coordinate of the centre at the start of the tick
+     * @param x The x-coordinate of the centre now
+     * @param y The y-coordinate of the centre now
+     */
+    public void drawMovingSprite(Sprite sprite, double fromX, double fromY, double x, double y) {
+        if (spriteCount == sprites.length) {
+            growSprites();
+        }
+        sprites[spriteCount] = sprite;
+        spriteX[spriteCount] = x;
+        spriteY[spriteCount] = y;
+        startX[spriteCount] = fromX;
+        startY[spriteCount] = fromY;
+        layers[spriteCount] = layer;
+        order[spriteCount] = spriteCount;
+        spriteCount++;
+    }
+
+
+    /**
+     * Adds a command to draw a string with its bottom-left corner at a position.
+     *
+     * @param font The font to draw with
+     * @param text The text to draw
+     * @param x The x-coordinate of the text
+     * @param y The y-coordinate of the text
+     */
+    public void drawText(GameFont font, String text, double x, double y) {
+        addText(font, text, x, y, false);
+    }
+
+    /**
+     * Adds a command to draw a string centred horizontally on the screen.
+     *
+     * @param font The font to draw with
+     * @param text The text to draw
+     * @param y The y-coordinate of the text
+     */
+    public void drawCentredText(GameFont font, String text, double y) {
+        addText(font, text, 0, y, true);
+    }
+
+
+    /**
+     * Reorders the sprite commands so that, within each layer, commands for the same
+     * image are drawn one after another. Commands for the same image keep the order
+     * they were added in.
+     */
+    public void sortByImage() {
+        if (spriteCount > INDEX_MASK) {
+            throw new IllegalStateException("Too many sprites to sort: " + spriteCount);
+        }
+        for (int i = 0; i < spriteCount; i++) {
+            sortKeys[i] = ((long) layers[i] << (IMAGE_BITS + INDEX_BITS))
+                    | ((sprites[i].getId() & IMAGE_MASK) << INDEX_BITS) | i;
+        }
+        Arrays.sort(sortKeys, 0, spriteCount);
+        for (int i = 0; i < spriteCount; i++) {
+            order[i] = (int) (sortKeys[i] & INDEX_MASK);
+        }
+    }
+
+
+    /**
+     * Draws every command with Bagel: the sprites in their current order, then the
+     * texts. Must be called on the thread that owns the window.
+     *
+     * @param alpha How far to draw moving sprites between where they were at the
+     *              start of the last tick (0) and where they are now (1)
+     */
+    public void submit(double alpha) {
+        for (int i = 0; i < spriteCount; i++) {
+            int command = order[i];
+            sprites[command].draw(interpolate(startX[command], spriteX[command], alpha),
+                    interpolate(startY[command], spriteY[command], alpha));
+        }
+        for (int i = 0; i < textCount; i++) {
+            double x = centred[i]
+                    ? (ShadowDonkeyKong.getScreenWidth() - fonts[i].getWidth(texts[i])) / 2.0
+                    : textX[i];
+            fonts[i].drawString(texts[i], x, textY[i]);
+        }
+    }
+
+
+    /**
+     * Gets the simulation tick the commands show, as given to finish.
+     *
+     * @return The tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets when the tick the commands show started, as given to finish.
+     *
+     * @return The time from System.nanoTime()
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+
+    /**
+     * Gets the number of sprite commands.
+     *
+     * @return The sprite command count
+     */
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /**
+     * Gets the image of a sprite command.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The image drawn
+     */
+    public Sprite getSprite(int index) {
+        return sprites[spriteCommand(index)];
+    }
+
+    /**
+     * Gets the x-coordinate of a sprite command.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The x-coordinate of the image's centre
+     */
+    public double getSpriteX(int index) {
+        return spriteX[spriteCommand(index)];
+    }
+
+    /**
+     * Gets the y-coordinate of a sprite command.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The y-coordinate of the image's centre
+     */
+    public double getSpriteY(int index) {
+        return spriteY[spriteCommand(index)];
+    }
+
+    /**
+     * Gets the x-coordinate a sprite command's image had at the start of the last tick.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The x-coordinate of the image's centre before the tick
+     */
+    public double getSpriteStartX(int index) {
+        return startX[spriteCommand(index)];
+    }
+
+    /**
+     * Gets the y-coordinate a sprite command's image had at the start of the last tick.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The y-coordinate of the image's centre before the tick
+     */
+    public double getSpriteStartY(int index) {
+        return startY[spriteCommand(index)];
+    }
+
+    /**
+     * Gets the layer of a sprite command.
+     *
+     * @param index The position of the command in drawing order, from 0
+     * @return The layer, counting from 0 for the first
+     */
+    public int getLayer(int index) {
+        return layers[spriteCommand(index)];
+    }
+
+
+    /**
+     * Gets the number of text commands.
+     *
+     * @return The text command count
+     */
+    public int getTextCount() {
+        return textCount;
+    }
+
+    /**
+     * Gets the string of a text command.
+     *
+     * @param index The position of the command, from 0
+     * @return The text drawn
+     */
+    public String getText(int index) {
+        checkText(index);
+        return texts[index];
+    }
+
+    /**
+     * Gets the font of a text command.
+     *
+     * @param index The position of the command, from 0
+     * @return The font drawn with
+     */
+    public GameFont getTextFont(int index) {
+        checkText(index);
+        return fonts[index];
+    }
+
+    /**
+     * Gets the x-coordinate of a text command.
+     *
+     * @param index The position of the command, from 0
+     * @return The x-coordinate, or NaN for text centred on the screen
+     */
+    public double getTextX(int index) {
+        checkText(index);
+        return centred[index] ? Double.NaN : textX[index];
+    }
+
+    /**
+     * Gets the y-coordinate of a text command.
+     *
+     * @param index The position of the command, from 0
+     * @return The y-coordinate
+     */
+    public double getTextY(int index) {
+        checkText(index);
+        return textY[index];
+    }
+
+
+    private void addText(GameFont font, String text, double x, double y, boolean isCentred) {
+        if (textCount == texts.length) {
+            int capacity = texts.length * 2;
+            fonts = Arrays.copyOf(fonts, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            textX = Arrays.copyOf(textX, capacity);
+            textY = Arrays.copyOf(textY, capacity);
+            centred = Arrays.copyOf(centred, capacity);
+        }
+        fonts[textCount] = font;
+        texts[textCount] = text;
+        textX[textCount] = x;
+        textY[textCount] = y;
+        centred[textCount] = isCentred;
+        textCount++;
+    }
+
+    private void growSprites() {
+        int capacity = sprites.length * 2;
+        sprites = Arrays.copyOf(sprites, capacity);
+        spriteX = Arrays.copyOf(spriteX, capacity);
+        spriteY = Arrays.copyOf(spriteY, capacity);
+        startX = Arrays.copyOf(startX, capacity);
+        startY = Arrays.copyOf(startY, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        order = Arrays.copyOf(order, capacity);
+        sortKeys = Arrays.copyOf(sortKeys, capacity);
+    }
+
+    private static double interpolate(double start, double end, double alpha) {
+        // Exactly the current position when fully through the tick
+        return (alpha >= 1.0) ? end : start + (end - start) * alpha;
+    }
+
+    private int spriteCommand(int index) {
+        if (index < 0 || index >= spriteCount) {
+            throw new IndexOutOfBoundsException("No sprite command " + index + " of " + spriteCount);
+        }
+        return order[index];
+    }
+
+    private void checkText(int index) {
+        if (index < 0 || index >= textCount) {
+            throw new IndexOutOfBoundsException("No text command " + index + " of " + textCount);
+        }
+    }
+}
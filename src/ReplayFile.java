@@ -0,0 +1,383 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A recorded game session saved to disk, read through a memory-mapped file so
+ * that any tick can be reached without replaying the whole session.
+ *
+ * The file holds the input of every tick, run-length encoded since keys are held
+ * for many ticks in a row, and a snapshot of the whole game (a keyframe) taken
+ * every few hundred ticks. To show the game at a given tick, the nearest keyframe
+ * at or before it is restored and only the ticks after it are simulated.
+ *
+ * It can also hold a checksum of the game's state after every tick, so a replay
+ * can be checked for the exact tick at which it stops matching the recording.
+ *
+ * Layout, with all numbers big-endian:
+ * <pre>
+ * header    magic "SDKR", version (short), tick count, keyframe interval,
+ *           keyframe count, input run count, checksum count (ints)
+ * index     per keyframe: tick, file offset of the input run holding that tick,
+ *           first tick of that run, file offset and length of the snapshot (ints)
+ * inputs    per run: recorded key state (byte), run length (unsigned LEB128)
+ * snapshots GameController.saveState output for each keyframe
+ * checksums StateChecksum of the game after each tick (ints), either none or
+ *           one per tick
+ * </pre>
+ */
+public class ReplayFile {
+
+    // "SDKR" in ASCII
+    private static final int MAGIC = 0x53444B52;
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 2 + 5 * Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 5 * Integer.BYTES;
+
+    private final MappedByteBuffer data;
+    private final String path;
+    private final int tickCount;
+    private final int keyframeInterval;
+    private final int keyframeCount;
+    private final int checksumCount;
+    private final int inputStart;
+    private final int checksumStart;
+
+
+    private ReplayFile(MappedByteBuffer data, String path) throws IOException {
+        this.data = data;
+        this.path = path;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a replay file: " + path);
+        }
+        int version = data.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version + ": " + path);
+        }
+        this.tickCount = data.getInt(6);
+        this.keyframeInterval = data.getInt(10);
+        this.keyframeCount = data.getInt(14);
+        int runCount = data.getInt(18);
+        this.checksumCount = data.getInt(22);
+        if (tickCount < 0 || keyframeCount < 0 || checksumCount < 0
+                || (checksumCount != 0 && checksumCount != tickCount)
+                || (keyframeCount > 0 && keyframeInterval < 1)
+                // Every run covers at least one tick and takes at least two bytes
+                || runCount < 0 || runCount > tickCount || (runCount == 0) != (tickCount == 0)
+                || HEADER_BYTES + (long) keyframeCount * INDEX_ENTRY_BYTES + 2L * runCount
+                        > data.capacity() - (long) checksumCount * Integer.BYTES) {
+            throw corrupt();
+        }
+        this.inputStart = HEADER_BYTES + keyframeCount * INDEX_ENTRY_BYTES;
+        this.checksumStart = data.capacity() - checksumCount * Integer.BYTES;
+    }
+
+
+    /**
+     * Opens a replay file, mapping it into memory.
+     *
+     * @param path The file to open
+     * @return The replay
+     * @throws IOException If the file cannot be read or is not a replay
+     */
+    public static ReplayFile open(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ReplayFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+
+    /**
+     * Writes a recorded session to a file, replacing it if it exists.
+     *
+     * @param path The file to write
+     * @param inputs The input of every tick
+     * @param keyframeInterval The number of ticks between keyframes
+     * @param keyframes The snapshot taken before each keyframe tick, the first at tick 0
+     * @param checksums The checksum after each tick, or an empty array for none
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(String path, InputRecording inputs, int keyframeInterval,
+                             List<byte[]> keyframes, int[] checksums) throws IOException {
+        int tickCount = inputs.getTickCount();
+        int keyframeCount = keyframes.size();
+        if (checksums.length != 0 && checksums.length != tickCount) {
+            throw new IllegalArgumentException("Expected " + tickCount + " checksums, got " + checksums.length);
+        }
+        int inputStart = HEADER_BYTES + keyframeCount * INDEX_ENTRY_BYTES;
+
+        // Encode the input runs, remembering where each keyframe's run starts
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        int[] keyframeRunOffset = new int[keyframeCount];
+        int[] keyframeRunStart = new int[keyframeCount];
+        int runCount = 0;
+        int runStart = 0;
+        while (runStart < tickCount) {
+            int state = inputs.getState(runStart);
+            int runEnd = runStart + 1;
+            while (runEnd < tickCount && inputs.getState(runEnd) == state) {
+                runEnd++;
+            }
+            int firstKeyframe = (runStart + keyframeInterval - 1) / keyframeInterval;
+            for (int k = firstKeyframe; k < keyframeCount && k * keyframeInterval < runEnd; k++) {
+                keyframeRunOffset[k] = inputStart + runs.size();
+                keyframeRunStart[k] = runStart;
+            }
+            runs.write(state);
+            writeUnsignedVarint(runs, runEnd - runStart);
+            runCount++;
+            runStart = runEnd;
+        }
+        // Keyframes at the very end of the session have no run of their own
+        for (int k = 0; k < keyframeCount; k++) {
+            if (k * keyframeInterval >= tickCount) {
+                keyframeRunOffset[k] = inputStart + runs.size();
+                keyframeRunStart[k] = tickCount;
+            }
+        }
+
+        int snapshotBytes = 0;
+        for (byte[] keyframe : keyframes) {
+            snapshotBytes += keyframe.length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(inputStart + runs.size() + snapshotBytes
+                + checksums.length * Integer.BYTES);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putInt(tickCount);
+        out.putInt(keyframeInterval);
+        out.putInt(keyframeCount);
+        out.putInt(runCount);
+        out.putInt(checksums.length);
+
+        int snapshotOffset = inputStart + runs.size();
+        for (int k = 0; k < keyframeCount; k++) {
+            out.putInt(k * keyframeInterval);
+            out.putInt(keyframeRunOffset[k]);
+            out.putInt(keyframeRunStart[k]);
+            out.putInt(snapshotOffset);
+            out.putInt(keyframes.get(k).length);
+            snapshotOffset += keyframes.get(k).length;
+        }
+        out.put(runs.toByteArray());
+        for (byte[] keyframe : keyframes) {
+            out.put(keyframe);
+        }
+        for (int checksum : checksums) {
+            out.putInt(checksum);
+        }
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+
+    /**
+     * Gets the number of ticks in the session.
+     *
+     * @return The tick count
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the number of ticks between keyframes.
+     *
+     * @return The keyframe interval
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Gets the number of keyframes in the file.
+     *
+     * @return The keyframe count
+     */
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+
+    /**
+     * Checks whether the file holds a checksum for every tick.
+     *
+     * @return true if checksums were recorded
+     */
+    public boolean hasChecksums() {
+        return checksumCount > 0;
+    }
+
+    /**
+     * Gets the checksum of the game's state recorded after a tick.
+     *
+     * @param tick The tick number, starting from 0
+     * @return The checksum made by StateChecksum after that tick
+     */
+    public int getChecksum(int tick) {
+        if (tick < 0 || tick >= checksumCount) {
+            throw new IllegalArgumentException("No checksum recorded for tick " + tick);
+        }
+        return data.getInt(checksumStart + tick * Integer.BYTES);
+    }
+
+
+    /**
+     * Decodes the input of every tick in the session.
+     *
+     * @return The recorded input
+     * @throws IOException If the input runs do not add up to the tick count
+     */
+    public InputRecording readInputs() throws IOException {
+        byte[] ticks = new byte[tickCount];
+        RunCursor runs = new RunCursor(inputStart, 0);
+        int tick = 0;
+        while (tick < tickCount) {
+            runs.next();
+            for (int i = 0; i < runs.length; i++) {
+                ticks[tick++] = (byte) runs.state;
+            }
+        }
+        return new InputRecording(ticks);
+    }
+
+
+    /**
+     * Recreates the game as it was after the given number of ticks, by restoring
+     * the nearest keyframe at or before it and simulating the ticks in between.
+     *
+     * @param tick The number of ticks played, from 0 to the tick count
+     * @param config The game settings the session was recorded with
+     * @param messageProps The message properties the session was recorded with
+     * @return A game controller in the state reached after the given tick
+     * @throws IOException If the keyframe or input runs needed do not match the header
+     */
+    public GameController seek(int tick, GameConfig config, Properties messageProps) throws IOException {
+        if (tick < 0 || tick > tickCount) {
+            throw new IllegalArgumentException("Tick " + tick + " is outside the replay (0 to " + tickCount + ")");
+        }
+
+        GameController controller = new GameController(config, messageProps);
+        int currentTick = 0;
+        RunCursor runs = new RunCursor(inputStart, 0);
+
+        // Start from the last keyframe at or before the tick, found by binary search
+        int low = 0;
+        int high = keyframeCount - 1;
+        int keyframe = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (data.getInt(indexEntry(mid)) <= tick) {
+                keyframe = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (keyframe >= 0) {
+            int entry = indexEntry(keyframe);
+            currentTick = data.getInt(entry);
+            int runOffset = data.getInt(entry + 4);
+            int runStart = data.getInt(entry + 8);
+            int snapshotOffset = data.getInt(entry + 12);
+            int snapshotLength = data.getInt(entry + 16);
+            if (runOffset < inputStart || runStart < 0 || runStart > currentTick || currentTick > tickCount
+                    || snapshotOffset < inputStart || snapshotLength < 0
+                    || snapshotOffset > checksumStart - snapshotLength) {
+                throw corrupt();
+            }
+            runs = new RunCursor(runOffset, runStart);
+            controller.loadState(new SnapshotReader(data.slice(snapshotOffset, snapshotLength)));
+        }
+
+        // Simulate forward from there, decoding input runs as they are reached
+        FrameInput input = new FrameInput();
+        while (currentTick < tick) {
+            runs.next();
+            int runEnd = Math.min(runs.end, tick);
+            for (; currentTick < runEnd; currentTick++) {
+                input.setRecordedState(runs.state);
+                controller.updateGame(input);
+            }
+        }
+        return controller;
+    }
+
+
+    /**
+     * Decodes the input runs one after another from a position in the file,
+     * checking that each run lies within the file and within the session.
+     */
+    private class RunCursor {
+
+        private int position;
+
+        // The recorded key state and length in ticks of the run last decoded, and
+        // the tick after its last
+        private int state;
+        private int length;
+        private int end;
+
+        private RunCursor(int position, int firstTick) {
+            this.position = position;
+            this.end = firstTick;
+        }
+
+        private void next() throws IOException {
+            state = readByte() & 0xFF;
+            length = 0;
+            int shift = 0;
+            int b;
+            do {
+                // A run length never needs more than the five bytes of an int
+                if (shift > 28) {
+                    throw corrupt();
+                }
+                b = readByte();
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (length < 1 || length > tickCount - end) {
+                throw corrupt();
+            }
+            end += length;
+        }
+
+        private byte readByte() throws IOException {
+            if (position >= checksumStart) {
+                throw corrupt();
+            }
+            return data.get(position++);
+        }
+    }
+
+
+    private IOException corrupt() {
+        return new IOException("Corrupt replay file: " + path);
+    }
+
+    private int indexEntry(int keyframe) {
+        return HEADER_BYTES + keyframe * INDEX_ENTRY_BYTES;
+    }
+
+    private static void writeUnsignedVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Records a game session as it is played, for saving as a ReplayFile.
+ *
+ * The input of every tick is kept, and every few hundred ticks a snapshot of the
+ * whole game is taken before the tick runs, so that a viewer can later jump close
+ * to any point of the session without replaying it from the start.
+ *
+ * A checksum of the game's state can also be kept after every tick, so that a
+ * replay which stops matching the recording (on another JVM, or after a change to
+ * the game logic) is caught at the exact tick it diverges.
+ */
+public class ReplayRecorder {
+
+    // Ticks between keyframes: ten seconds of game time
+    public static final int DEFAULT_KEYFRAME_INTERVAL = FixedTimestep.TICKS_PER_SECOND * 10;
+
+    private final int keyframeInterval;
+    private final boolean recordChecksums;
+    private final InputRecording inputs = new InputRecording();
+    private final ArrayList<byte[]> keyframes = new ArrayList<>();
+    private final SnapshotWriter snapshot = new SnapshotWriter();
+    private final StateChecksum checksum = new StateChecksum();
+    private int[] checksums = new int[0];
+    private int checksumCount = 0;
+
+
+    public ReplayRecorder(int keyframeInterval, boolean recordChecksums) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1, got " + keyframeInterval);
+        }
+        this.keyframeInterval = keyframeInterval;
+        this.recordChecksums = recordChecksums;
+        if (recordChecksums) {
+            this.checksums = new int[FixedTimestep.TICKS_PER_SECOND * 60];
+        }
+    }
+
+    /**
+     * Creates a recorder taking a keyframe every ten seconds of game time and
+     * a checksum after every tick.
+     */
+    public ReplayRecorder() {
+        this(DEFAULT_KEYFRAME_INTERVAL, true);
+    }
+
+
+    /**
+     * Records one tick. Must be called just before the controller is updated with the input.
+     *
+     * @param controller The game about to be updated
+     * @param input The input the tick will see
+     */
+    public void record(GameController controller, FrameInput input) {
+        if (inputs.getTickCount() % keyframeInterval == 0) {
+            snapshot.reset();
+            controller.saveState(snapshot);
+            keyframes.add(snapshot.toByteArray());
+        }
+        inputs.record(input);
+    }
+
+
+    /**
+     * Records the checksum of the game's state once a tick has run, if checksums
+     * are being kept. Must be called just after the controller is updated.
+     *
+     * @param controller The game just updated
+     */
+    public void recordChecksum(GameController controller) {
+        if (recordChecksums) {
+            if (checksumCount == checksums.length) {
+                checksums = Arrays.copyOf(checksums, checksums.length * 2);
+            }
+            checksums[checksumCount++] = checksum.checksum(controller);
+        }
+    }
+
+
+    /**
+     * Gets the input recorded so far.
+     *
+     * @return The recorded input
+     */
+    public InputRecording getInputs() {
+        return inputs;
+    }
+
+
+    /**
+     * Saves the session recorded so far.
+     *
+     * @param path The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void save(String path) throws IOException {
+        ReplayFile.write(path, inputs, keyframeInterval, keyframes, Arrays.copyOf(checksums, checksumCount));
+    }
+}
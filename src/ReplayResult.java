@@ -0,0 +1,36 @@
+/**
+ * The outcome of replaying a recorded game session without a window.
+ *
+ * @param ticks The number of simulation ticks replayed
+ * @param finalState The state the game was in after the last tick
+ * @param gamesFinished The number of games that reached the GameOver screen
+ * @param score The final score of the last finished game, or 0 if none finished
+ * @param gameWon Whether the last finished game was won
+ * @param divergedAt The first tick after which the game's state did not match the
+ *                   recorded checksum, or -1 if it always matched or was not checked
+ * @param elapsedNanos The wall-clock time spent replaying, in nanoseconds
+ */
+public record ReplayResult(int ticks, GameState finalState, int gamesFinished, int score,
+                           boolean gameWon, int divergedAt, long elapsedNanos) {
+
+    /**
+     * Checks whether the replay stopped matching the recorded session.
+     *
+     * @return true if a checksum differed
+     */
+    public boolean diverged() {
+        return divergedAt >= 0;
+    }
+
+    /**
+     * Formats the result as a single human-readable line.
+     *
+     * @return The result summary
+     */
+    @Override
+    public String toString() {
+        String divergence = diverged() ? " divergedAt=" + divergedAt : "";
+        return String.format("ticks=%d state=%s games=%d score=%d won=%b%s time=%.2fms",
+                ticks, finalState, gamesFinished, score, gameWon, divergence, elapsedNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Plays recorded input back through the whole game without a window, as fast as
+ * the CPU allows.
+ *
+ * A fresh GameController starts on the Home screen, exactly like the recorded
+ * session did, and is updated once per recorded tick. Nothing is drawn, so a
+ * session of several minutes replays in milliseconds, reaching the same screens
+ * and scores the player saw.
+ *
+ * When the replay file holds a checksum for every tick, the game's state is checked
+ * against it after each tick, and the first tick where they differ is reported.
+ */
+public class ReplayRunner {
+
+    private final GameConfig CONFIG;
+    private final Properties MESSAGE_PROPS;
+
+
+    public ReplayRunner(GameConfig config, Properties messageProps) {
+        this.CONFIG = config;
+        this.MESSAGE_PROPS = messageProps;
+        ShadowDonkeyKong.initialiseScreenSize(config);
+    }
+
+
+    /**
+     * Replays every tick of a recording from the Home screen.
+     *
+     * @param recording The recorded input
+     * @return The outcome of the session
+     */
+    public ReplayResult replay(InputRecording recording) {
+        return replay(recording, null);
+    }
+
+
+    /**
+     * Replays every tick of a replay file from the Home screen, checking the game's
+     * state after each tick against the recorded checksums if there are any.
+     *
+     * @param replay The replay file
+     * @return The outcome of the session
+     * @throws IOException If the replay's input runs are corrupt
+     */
+    public ReplayResult replay(ReplayFile replay) throws IOException {
+        return replay(replay.readInputs(), replay.hasChecksums() ? replay : null);
+    }
+
+
+    private ReplayResult replay(InputRecording recording, ReplayFile checksums) {
+        long startTime = System.nanoTime();
+
+        GameController controller = new GameController(CONFIG, MESSAGE_PROPS);
+        FrameInput input = new FrameInput();
+        int ticks = recording.getTickCount();
+        int gamesFinished = 0;
+        int score = 0;
+        boolean gameWon = false;
+        StateChecksum checksum = new StateChecksum();
+        int divergedAt = -1;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            GameState stateBefore = controller.getCurrentState();
+            input.clear();
+            recording.fill(tick, input);
+            controller.updateGame(input);
+
+            // Remember the result of each game as it reaches the GameOver screen
+            if (stateBefore != GameState.GAME_OVER && controller.getCurrentState() == GameState.GAME_OVER) {
+                GameOverScreen gameOver = (GameOverScreen) controller.getCurrentScreen();
+                gamesFinished++;
+                score = gameOver.getFinalScore();
+                gameWon = gameOver.isWon();
+            }
+
+            // Only the first divergence matters, since every later tick follows from it
+            if (checksums != null && divergedAt < 0 && checksum.checksum(controller) != checksums.getChecksum(tick)) {
+                divergedAt = tick;
+            }
+        }
+
+        return new ReplayResult(ticks, controller.getCurrentState(), gamesFinished, score, gameWon,
+                divergedAt, System.nanoTime() - startTime);
+    }
+
+
+    /**
+     * Replays a recorded session headless and prints the outcome, or, given a tick,
+     * jumps straight to that tick and prints the game's state there.
+     *
+     * @param args The replay file, and optionally the tick to jump to.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <replay> [tick]");
+            System.exit(-1);
+        }
+
+        GameConfig config = GameConfigLoader.load();
+        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+        try {
+            ReplayFile replay = ReplayFile.open(args[0]);
+            ReplayRunner runner = new ReplayRunner(config, messageProps);
+            if (args.length > 1) {
+                int tick = Integer.parseInt(args[1]);
+                long startTime = System.nanoTime();
+                GameController controller = replay.seek(tick, config, messageProps);
+                System.out.printf("tick=%d state=%s totalScore=%d seek=%.2fms%n", tick,
+                        controller.getCurrentState(), controller.getTotalScore(),
+                        (System.nanoTime() - startTime) / 1_000_000.0);
+            } else {
+                System.out.println(runner.replay(replay));
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * The outcome of checking one submitted score against its replay.
+ *
+ * @param replay The name of the replay file
+ * @param claimedScore The score submitted with the replay
+ * @param claimedWon Whether the submission claims the game was won
+ * @param result The outcome of re-simulating the replay, or null if it could not be read
+ * @param error Why the replay could not be checked, or null if it was
+ */
+public record ReplayVerification(String replay, int claimedScore, boolean claimedWon,
+                                 ReplayResult result, String error) {
+
+    /**
+     * Checks whether the replay finished a game with exactly the claimed score and
+     * result, and matched every checksum recorded with it.
+     *
+     * @return true if the submission is confirmed
+     */
+    public boolean isVerified() {
+        return result != null && !result.diverged() && result.gamesFinished() > 0
+                && result.score() == claimedScore && result.gameWon() == claimedWon;
+    }
+
+    /**
+     * Formats the verification as a single human-readable line.
+     *
+     * @return The verification summary
+     */
+    @Override
+    public String toString() {
+        String claim = String.format("%s claimed score=%d won=%b", replay, claimedScore, claimedWon);
+        if (error != null) {
+            return claim + " ERROR " + error;
+        }
+        return claim + (isVerified() ? " OK " : " MISMATCH ") + result;
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks submitted scores by re-simulating their replays on a fixed pool of
+ * worker threads, without a window.
+ *
+ * A directory of submissions holds the replay files and a claims.properties file
+ * listing, for each replay file name, the claimed final score and whether the game
+ * was won, as "score,won" (for example {@code run42.sdkr=1230,true}). The final
+ * score is the one GameController computed when the game ended, including the
+ * Level 2 time bonus, so a replay is confirmed only if re-simulating it from the
+ * Home screen finishes a game with exactly that score and result.
+ *
+ * Like BatchSimulator, every replay runs in its own game, so throughput scales
+ * with the number of cores.
+ *
+ * Submissions are untrusted, so a replay longer than a tick limit is rejected
+ * before its input is decoded, and any failure while checking one replay is
+ * reported as that replay's error rather than stopping the others.
+ */
+public class ReplayVerifier implements AutoCloseable {
+
+    // The file in a submissions directory listing the claimed results
+    public static final String CLAIMS_FILE = "claims.properties";
+
+    // Ticks allowed on top of both levels for the Home and GameOver screens: ten minutes
+    public static final int MENU_TICKS = 10 * 60 * FixedTimestep.TICKS_PER_SECOND;
+    private static final int LEVEL_COUNT = 2;
+
+    private final ReplayRunner runner;
+    private final ExecutorService workers;
+    private final int maxTicks;
+
+
+    public ReplayVerifier(GameConfig config, Properties messageProps, int threadCount, int maxTicks) {
+        if (maxTicks < 0) {
+            throw new IllegalArgumentException("maxTicks must not be negative: " + maxTicks);
+        }
+        // Publishes the screen size before any worker starts
+        this.runner = new ReplayRunner(config, messageProps);
+        this.workers = Executors.newFixedThreadPool(threadCount);
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Creates a verifier accepting replays as long as one full game can take.
+     *
+     * @param config The game settings the replays were recorded with
+     * @param messageProps The message properties the replays were recorded with
+     * @param threadCount The number of worker threads
+     */
+    public ReplayVerifier(GameConfig config, Properties messageProps, int threadCount) {
+        this(config, messageProps, threadCount, defaultMaxTicks(config));
+    }
+
+
+    /**
+     * Gets the most ticks one full game can take: every level played until its
+     * time runs out, plus time spent on the Home and GameOver screens.
+     *
+     * @param config The game settings
+     * @return The default tick limit
+     */
+    public static int defaultMaxTicks(GameConfig config) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) LEVEL_COUNT * config.maxFrames() + MENU_TICKS);
+    }
+
+
+    /**
+     * Verifies every claim listed in a submissions directory.
+     *
+     * @param directory The directory holding the replays and their claims file
+     * @return The verification of each claim, in replay name order
+     * @throws IOException If the claims file cannot be read
+     */
+    public List<ReplayVerification> verifyDirectory(Path directory) throws IOException {
+        Properties claims = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(CLAIMS_FILE))) {
+            claims.load(reader);
+        }
+
+        List<Future<ReplayVerification>> pending = new ArrayList<>();
+        for (String replay : new TreeSet<>(claims.stringPropertyNames())) {
+            String claim = claims.getProperty(replay);
+            Path path = directory.resolve(replay);
+            pending.add(workers.submit(() -> verify(path, claim)));
+        }
+
+        List<ReplayVerification> results = new ArrayList<>();
+        for (Future<ReplayVerification> future : pending) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+
+    /**
+     * Verifies one claim by re-simulating its replay.
+     *
+     * @param replay The replay file
+     * @param claim The claimed result, as "score,won"
+     * @return The verification of the claim
+     */
+    public ReplayVerification verify(Path replay, String claim) {
+        String name = replay.getFileName().toString();
+        String[] claimData = claim.split(",");
+        int claimedScore;
+        boolean claimedWon;
+        try {
+            claimedScore = Integer.parseInt(claimData[0].trim());
+            claimedWon = (claimData.length > 1) && Boolean.parseBoolean(claimData[1].trim());
+        } catch (NumberFormatException ex) {
+            return new ReplayVerification(name, 0, false, null, "invalid claim: " + claim);
+        }
+
+        if (!Files.isRegularFile(replay)) {
+            return new ReplayVerification(name, claimedScore, claimedWon, null, "replay not found");
+        }
+        try {
+            ReplayFile replayFile = ReplayFile.open(replay.toString());
+            if (replayFile.getTickCount() > maxTicks) {
+                return new ReplayVerification(name, claimedScore, claimedWon, null,
+                        "replay too long: " + replayFile.getTickCount() + " ticks, limit " + maxTicks);
+            }
+            ReplayResult result = runner.replay(replayFile);
+            return new ReplayVerification(name, claimedScore, claimedWon, result, null);
+        } catch (IOException | RuntimeException | Error ex) {
+            // Whatever this replay does, the rest of the batch is still checked
+            return new ReplayVerification(name, claimedScore, claimedWon, null, ex.toString());
+        }
+    }
+
+
+    /**
+     * Stops the worker threads once all submitted replays have been checked.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+
+    /**
+     * Waits for one verification to finish, passing on any failure from the worker.
+     */
+    private static ReplayVerification await(Future<ReplayVerification> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for verification", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Verification failed", ex.getCause());
+        }
+    }
+
+
+    /**
+     * Verifies a directory of submissions and prints each rejected claim and the
+     * overall throughput.
+     *
+     * @param args The submissions directory, optionally the thread count (default: all
+     *             available cores), and then the most ticks a replay may have (default:
+     *             as many as one full game can take).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayVerifier <directory> [threads] [maxTicks]");
+            System.exit(-1);
+        }
+        int threadCount = (args.length > 1) ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        GameConfig config = GameConfigLoader.load();
+        int maxTicks = (args.length > 2) ? Integer.parseInt(args[2]) : defaultMaxTicks(config);
+        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+        try (ReplayVerifier verifier = new ReplayVerifier(config, messageProps, threadCount, maxTicks)) {
+            long startTime = System.nanoTime();
+            List<ReplayVerification> results = verifier.verifyDirectory(Path.of(args[0]));
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            int verified = 0;
+            for (ReplayVerification result : results) {
+                if (result.isVerified()) {
+                    verified++;
+                } else {
+                    System.out.println(result);
+                }
+            }
+            System.out.printf("%d replays (%d verified, %d rejected) on %d threads in %.2fs: %.0f replays/s%n",
+                    results.size(), verified, results.size() - verified, threadCount, seconds,
+                    results.size() / seconds);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 import bagel.*;
-import bagel.util.Point;
-import bagel.util.Rectangle;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Properties;
 
 /**
@@ -15,36 +13,51 @@ import java.util.Properties;
  */
 public class ShadowDonkeyKong extends AbstractGame {
 
-    private final Properties GAME_PROPS;
+    // Set to true to print how long the threads spent on each kind of work when the window closes
+    public static final String TIMINGS_PROPERTY = "shadowdonkeykong.timings";
+
+    private final GameConfig CONFIG;
     private final Properties MESSAGE_PROPS;
 
-    private static double screenWidth;
-    private static double screenHeight;
-    private final Image BACKGROUND_IMG;
+    // Written once at start-up and only read afterwards, including by simulation threads
+    private static volatile double screenWidth;
+    private static volatile double screenHeight;
+    private final Sprite BACKGROUND_IMG;
 
     private GameController controller;
 
+    // Runs the game logic and hands each finished frame's draw commands to this thread
+    private final SimulationThread simulation;
+
 
-    public ShadowDonkeyKong(Properties gameProps, Properties messageProps) {
-        super(Integer.parseInt(gameProps.getProperty("window.width")),
-                Integer.parseInt(gameProps.getProperty("window.height")),
-                messageProps.getProperty("home.title"));
+    public ShadowDonkeyKong(GameConfig config, Properties messageProps) {
+        super(config.windowWidth(), config.windowHeight(), messageProps.getProperty("home.title"));
 
-        this.GAME_PROPS = gameProps;
+        this.CONFIG = config;
         this.MESSAGE_PROPS = messageProps;
 
-        screenWidth = Integer.parseInt(gameProps.getProperty("window.width"));
-        screenHeight = Integer.parseInt(gameProps.getProperty("window.height"));
-        this.BACKGROUND_IMG  = new Image(gameProps.getProperty("backgroundImage"));
+        initialiseScreenSize(config);
+        this.BACKGROUND_IMG  = Assets.sprite(config.backgroundImage());
 
         // initialise the game controller to handle the Donkey Kong game
-        this.controller = new GameController(GAME_PROPS, MESSAGE_PROPS);
+        this.controller = new GameController(CONFIG, MESSAGE_PROPS);
+        controller.prefetchLevels();
+        this.simulation = new SimulationThread(controller, BACKGROUND_IMG, config.maxTicksPerFrame());
+
+        // Now the window exists, create every image and font before the first frame
+        Assets.createGraphics();
 
     }
 
 
     /**
      * Render the relevant screen based on the keyboard input given by the user and the status of the gameplay.
+     *
+     * The game logic runs on its own thread in fixed ticks of 1/60 of a second (see
+     * SimulationThread), so game speed depends on neither the refresh rate nor how long
+     * drawing takes. Each frame hands the keyboard state over to it and draws the latest
+     * game state it has finished. The simulation starts with the first frame.
+     *
      * @param input The current mouse/keyboard input.
      */
     @Override
@@ -53,36 +66,95 @@ public class ShadowDonkeyKong extends AbstractGame {
             Window.close();
         }
 
-        drawBackground();
+        if (!simulation.isStarted()) {
+            simulation.start();
+        }
+        simulation.submitInput(input);
+        simulation.draw();
+    }
+
 
-        controller.updateGame(input);
+    /**
+     * Gets the thread running the game logic, whose timelines show what it and the
+     * window thread spent their time on.
+     *
+     * @return The simulation thread
+     */
+    public SimulationThread getSimulation() {
+        return simulation;
+    }
+
+
+    /**
+     * Starts recording every tick from now on, so the session can be saved as a
+     * replay file.
+     *
+     * @return The recorder being filled in
+     */
+    public ReplayRecorder startRecording() {
+        ReplayRecorder recorder = new ReplayRecorder();
+        simulation.setRecorder(recorder);
+        return recorder;
     }
 
 
     /**
      * The main entry point of the Shadow Donkey Kong game.
      *
-     * This method loads the game properties and message files, initializes the game,
+     * This method loads the game settings and message files, initializes the game,
      * and starts the game loop.
      *
-     * @param args Command-line arguments (not used in this game).
+     * Running with -Dshadowdonkeykong.timings=true prints how long each asset took to
+     * load, a summary of both threads' timelines, how many frames were rendered and
+     * skipped and ticks dropped, the key events handed between the threads, and how
+     * long starting a level waited for it to be built, when the window closes.
+     *
+     * @param args Optionally, a file to save a replay of the session to when the window closes,
+     *             and then a file to save both threads' timelines to, in Chrome trace format.
      */
     public static void main(String[] args) {
-        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        GameConfig config = GameConfigLoader.load();
+        // Read the assets in the background while the window is being created
+        Assets.preload(config);
         Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
-        ShadowDonkeyKong game = new ShadowDonkeyKong(gameProps, messageProps);
+        ShadowDonkeyKong game = new ShadowDonkeyKong(config, messageProps);
+        ReplayRecorder recorder = (args.length > 0) ? game.startRecording() : null;
         game.run();
+
+        SimulationThread simulation = game.getSimulation();
+        simulation.stop();
+        if (Boolean.getBoolean(TIMINGS_PROPERTY)) {
+            Assets.printLoadTimes();
+            simulation.getSimulationTimeline().printSummary();
+            simulation.getWindowTimeline().printSummary();
+            simulation.getTimestep().printSummary();
+            simulation.getKeyEvents().printSummary();
+            System.out.printf("level prefetch: waited=%.3fms%n", game.controller.getLevelWaitNanos() / 1_000_000.0);
+        }
+        try {
+            if (recorder != null) {
+                recorder.save(args[0]);
+            }
+            if (args.length > 1) {
+                ThreadTimeline.save(args[1], simulation.getSimulationTimeline(), simulation.getWindowTimeline());
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
     }
 
 
     /**
-     * Hels to draw the background for the game.
+     * Sets the screen size used by the game logic from the game settings.
+     * Called when the window is created, or before running the game headless,
+     * and always before any simulation thread is started.
+     *
+     * @param config The game settings, holding the window size.
      */
-    private void drawBackground() {
-        double imgCentreX = screenWidth / 2.0;
-        double imgCentreY = screenHeight / 2.0;
-
-        this.BACKGROUND_IMG.draw(imgCentreX, imgCentreY);
+    public static void initialiseScreenSize(GameConfig config) {
+        screenWidth = config.windowWidth();
+        screenHeight = config.windowHeight();
     }
 
     /**
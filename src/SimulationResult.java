@@ -0,0 +1,24 @@
+/**
+ * The outcome of one game level simulated without a window.
+ *
+ * @param level The level number that was played (1 or 2)
+ * @param score The score reached in the level
+ * @param timeRemaining The time left in seconds when the level ended
+ * @param gameWon Whether the level was won
+ * @param frames The number of frames simulated
+ * @param elapsedNanos The wall-clock time spent simulating, in nanoseconds
+ */
+public record SimulationResult(int level, int score, int timeRemaining, boolean gameWon,
+                               int frames, long elapsedNanos) {
+
+    /**
+     * Formats the result as a single human-readable line.
+     *
+     * @return The result summary
+     */
+    @Override
+    public String toString() {
+        return String.format("level=%d score=%d timeRemaining=%d won=%b frames=%d time=%.2fms",
+                level, score, timeRemaining, gameWon, frames, elapsedNanos / 1_000_000.0);
+    }
+}
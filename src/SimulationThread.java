@@ -0,0 +1,245 @@
+import bagel.*;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the game logic on its own thread at a fixed tick rate, apart from the
+ * window thread that draws it.
+ *
+ * After each batch of ticks the simulation thread fills a RenderBuffer with the
+ * draw commands for the game as it now stands, already sorted by image, and
+ * publishes it through a TripleBuffer. The window thread only ever draws the
+ * latest published buffer, so a slow frame no longer delays the game logic and a
+ * slow tick no longer delays drawing; the window simply draws the same buffer
+ * again, with moving entities interpolated further between where they were before
+ * and after the last tick as time passes. The game controller is only touched by the
+ * simulation thread once it has started.
+ *
+ * Input goes the other way through a KeyEventQueue: the window thread adds each
+ * key press and release it samples, with the time it was sampled, and each tick
+ * takes every event sampled before it started, so a press is never lost, is seen
+ * by the next tick at the latest, and how long it waited is measured.
+ *
+ * Both threads record what they spend their time on in a ThreadTimeline.
+ */
+public class SimulationThread {
+
+    // Timeline events
+    public static final String TICK = "tick";
+    public static final String SNAPSHOT = "snapshot";
+    public static final String INPUT = "input";
+    public static final String DRAW = "draw";
+
+    private final GameController controller;
+    private final Sprite background;
+    private final FixedTimestep timestep;
+    private final TripleBuffer<RenderBuffer> frames = new TripleBuffer<>(RenderBuffer::new);
+
+    // Keys handed over from the window thread
+    private final KeyEventQueue keyEvents = new KeyEventQueue();
+    private final FrameInput tickInput = new FrameInput();
+
+    private final ThreadTimeline simulationTimeline = new ThreadTimeline("simulation");
+    private final ThreadTimeline windowTimeline = new ThreadTimeline("window");
+
+    // Records every tick, only when the session is being recorded
+    private ReplayRecorder recorder;
+
+    private final Thread thread;
+    private volatile boolean running = false;
+    private volatile Throwable failure;
+    private long tick = 0;
+    private long tickNanos = 0;
+
+
+    /**
+     * Creates the simulation thread, without starting it.
+     *
+     * @param controller The game to run; only used by the new thread once started
+     * @param background The image drawn below everything else
+     * @param maxTicksPerFrame The most ticks to run back to back when the simulation falls behind
+     */
+    public SimulationThread(GameController controller, Sprite background, int maxTicksPerFrame) {
+        this.controller = controller;
+        this.background = background;
+        this.timestep = new FixedTimestep(maxTicksPerFrame);
+        this.thread = new Thread(this::runTicks, "simulation");
+        this.thread.setDaemon(true);
+    }
+
+
+    /**
+     * Records every tick from now on, so the session can be saved as a replay file.
+     * Must be called before the thread is started.
+     *
+     * @param recorder The recorder to fill in
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        if (thread.getState() != Thread.State.NEW) {
+            throw new IllegalStateException("Recording must start before the simulation thread");
+        }
+        this.recorder = recorder;
+    }
+
+
+    /**
+     * Starts running ticks on the simulation thread.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Checks whether the simulation thread has been started.
+     *
+     * @return true once start has been called
+     */
+    public boolean isStarted() {
+        return thread.getState() != Thread.State.NEW;
+    }
+
+    /**
+     * Stops the simulation thread after its current tick and waits for it to finish.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Hands this frame's keyboard state to the simulation. Window thread only.
+     *
+     * @param input The current keyboard input from the window
+     */
+    public void submitInput(Input input) {
+        long startTime = System.nanoTime();
+        keyEvents.sample(input, startTime);
+        windowTimeline.record(INPUT, frames.getLatest().getTick(), startTime, System.nanoTime());
+    }
+
+    /**
+     * Draws the latest draw commands the simulation has published. Window thread only.
+     *
+     * @throws IllegalStateException If the simulation thread has failed
+     */
+    public void draw() {
+        if (failure != null) {
+            throw new IllegalStateException("The simulation thread failed", failure);
+        }
+        long startTime = System.nanoTime();
+        RenderBuffer frame = frames.getLatest();
+        // Entities reach where the tick left them as the next tick becomes due
+        double alpha = (startTime - frame.getTickNanos()) / (double) FixedTimestep.TICK_NANOS;
+        frame.submit(Math.max(0.0, Math.min(1.0, alpha)));
+        windowTimeline.record(DRAW, frame.getTick(), startTime, System.nanoTime());
+    }
+
+
+    private void runTicks() {
+        try {
+            timestep.advance(System.nanoTime());
+            while (running) {
+                int ticks = timestep.advance(System.nanoTime());
+                for (int i = 0; i < ticks; i++) {
+                    runTick();
+                }
+                if (ticks > 0) {
+                    publishFrame();
+                }
+
+                // Sleep until the next tick is due
+                LockSupport.parkNanos((long) ((1.0 - timestep.getAlpha()) * FixedTimestep.TICK_NANOS));
+            }
+        } catch (RuntimeException | Error ex) {
+            failure = ex;
+        }
+    }
+
+    private void runTick() {
+        long startTime = System.nanoTime();
+        tickInput.consumePresses();
+        keyEvents.poll(startTime, tickInput);
+        if (recorder != null) {
+            recorder.record(controller, tickInput);
+        }
+        controller.updateGame(tickInput);
+        if (recorder != null) {
+            recorder.recordChecksum(controller);
+        }
+        tick++;
+        tickNanos = startTime;
+        simulationTimeline.record(TICK, tick, startTime, System.nanoTime());
+    }
+
+    private void publishFrame() {
+        long startTime = System.nanoTime();
+        RenderBuffer frame = frames.getBack();
+        frame.clear();
+        frame.drawSprite(background, ShadowDonkeyKong.getScreenWidth() / 2.0, ShadowDonkeyKong.getScreenHeight() / 2.0);
+        frame.nextLayer();
+        controller.render(frame);
+        frame.sortByImage();
+
+        frame.finish(tick, tickNanos);
+        long endTime = System.nanoTime();
+        frames.publish();
+        timestep.frameRendered();
+        simulationTimeline.record(SNAPSHOT, tick, startTime, endTime);
+    }
+
+
+    /**
+     * Gets the timestep driving the ticks, whose counters show how many frames were
+     * published, how many were skipped because ticks ran back to back and how many
+     * ticks were dropped while the simulation was behind. Its counters are only up to
+     * date once the thread has stopped.
+     *
+     * @return The simulation's timestep
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+    /**
+     * Gets the queue of key events from the window thread, whose counters show how
+     * long events waited for a tick. Its counters are only up to date once the
+     * thread has stopped.
+     *
+     * @return The key event queue
+     */
+    public KeyEventQueue getKeyEvents() {
+        return keyEvents;
+    }
+
+    /**
+     * Gets what the simulation thread spent its time on. Only read once stopped.
+     *
+     * @return The simulation thread's timeline
+     */
+    public ThreadTimeline getSimulationTimeline() {
+        return simulationTimeline;
+    }
+
+    /**
+     * Gets what the window thread spent handing over input and drawing. Only read
+     * on the window thread or once it has stopped drawing.
+     *
+     * @return The window thread's timeline
+     */
+    public ThreadTimeline getWindowTimeline() {
+        return windowTimeline;
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.ArrayList;
+
+/**
+ * A range of consecutive slots in an EntityStore, from the first slot up to but not
+ * including the last.
+ *
+ * @param from The first slot of the range
+ * @param to One past the last slot of the range
+ */
+public record SlotRange(int from, int to) {
+
+    /**
+     * Gets the range of slots holding a group of entities that were added to the same
+     * store one after another, such as the barrels of a level.
+     *
+     * @param entities The entities, in the order they were created
+     * @return The range of slots they occupy
+     * @throws IllegalArgumentException if the entities do not occupy consecutive slots of one store
+     */
+    public static SlotRange of(ArrayList<? extends Entity> entities) {
+        if (entities.isEmpty()) {
+            return new SlotRange(0, 0);
+        }
+        EntityStore store = entities.get(0).getStore();
+        int from = entities.get(0).getSlot();
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (entity.getStore() != store || entity.getSlot() != from + i) {
+                throw new IllegalArgumentException("Entities do not occupy consecutive slots of one store");
+            }
+        }
+        return new SlotRange(from, from + entities.size());
+    }
+}
@@ -0,0 +1,43 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Reads game state back from a snapshot made by a SnapshotWriter. The snapshot
+ * can be held in memory or be a slice of a memory-mapped replay file.
+ */
+public class SnapshotReader implements StateReader {
+
+    private final ByteBuffer buffer;
+
+
+    public SnapshotReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public SnapshotReader(byte[] snapshot) {
+        this(ByteBuffer.wrap(snapshot));
+    }
+
+
+    /**
+     * Goes back to the start of the snapshot, so it can be restored again.
+     */
+    public void rewind() {
+        buffer.rewind();
+    }
+
+
+    @Override
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    @Override
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+}
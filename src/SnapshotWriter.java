@@ -0,0 +1,80 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes game state into a growing in-memory buffer, producing a snapshot that
+ * a SnapshotReader can restore.
+ */
+public class SnapshotWriter implements StateWriter {
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+
+
+    public SnapshotWriter(int initialCapacity) {
+        this.bytes = new byte[Math.max(Double.BYTES, initialCapacity)];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Creates a writer with room for a typical level snapshot.
+     */
+    public SnapshotWriter() {
+        this(4096);
+    }
+
+
+    @Override
+    public void writeInt(int value) {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        ensureRemaining(1);
+        buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return The snapshot size in bytes
+     */
+    public int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Copies out the bytes written so far.
+     *
+     * @return The snapshot
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, buffer.position());
+    }
+
+    /**
+     * Discards everything written, so the writer can be reused for another snapshot.
+     */
+    public void reset() {
+        buffer.clear();
+    }
+
+
+    private void ensureRemaining(int count) {
+        if (buffer.remaining() < count) {
+            int position = buffer.position();
+            this.bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + count));
+            this.buffer = ByteBuffer.wrap(bytes);
+            buffer.position(position);
+        }
+    }
+}
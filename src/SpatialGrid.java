@@ -0,0 +1,276 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the game world used to find which entities are near another
+ * without testing every pair.
+ *
+ * Each registered entity is listed in every cell its bounding box overlaps. After an
+ * entity moves it must be passed to move() so its cells are kept up to date; removed
+ * (destroyed) entities are no longer returned by queries.
+ *
+ * What the grid keeps about each entity, such as the cells it is listed in, is held
+ * in arrays indexed by the entity's EntityStore slot, so every entity in one grid
+ * must come from the same store. An entity can be registered in several grids.
+ *
+ * Positions outside the world are clamped to the border cells, so the world size only
+ * affects how entities are spread over cells, not correctness.
+ *
+ * @param <T> The type of entity stored in the grid
+ */
+public class SpatialGrid<T extends Entity> {
+
+    // Default cell size, in pixels, roughly the size of the larger sprites
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    // Room for entities in each cell from the start, so cells entities move into do not allocate
+    private static final int INITIAL_CELL_CAPACITY = 8;
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final ArrayList<ArrayList<T>> cells;
+
+    // Per store slot: the order the entity was registered in (NOT_IN_GRID if it is
+    // not), the last query that found it, and the cells it is listed in
+    private static final int NOT_IN_GRID = -1;
+    private int[] orders = new int[0];
+    private int[] stamps = new int[0];
+    private int[] minCols = new int[0];
+    private int[] maxCols = new int[0];
+    private int[] minRows = new int[0];
+    private int[] maxRows = new int[0];
+
+    // Used to give entities a stable order and to skip duplicates within a query
+    private int nextOrder = 0;
+    private int queryStamp = 0;
+
+
+    public SpatialGrid(double worldWidth, double worldHeight, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.cells = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            cells.add(new ArrayList<>(INITIAL_CELL_CAPACITY));
+        }
+    }
+
+    /**
+     * Creates a grid covering the game screen with the default cell size.
+     */
+    public SpatialGrid() {
+        this(ShadowDonkeyKong.getScreenWidth(), ShadowDonkeyKong.getScreenHeight(), DEFAULT_CELL_SIZE);
+    }
+
+
+    /**
+     * Makes room for the entities in a number of store slots, so that inserting
+     * them later does not allocate.
+     *
+     * @param slots The number of slots, counting from slot 0
+     */
+    public void reserve(int slots) {
+        if (slots > orders.length) {
+            growSlots(slots);
+        }
+    }
+
+    /**
+     * Registers an entity in the cells its bounding box overlaps.
+     *
+     * @param entity The entity to add
+     */
+    public void insert(T entity) {
+        int slot = entity.getSlot();
+        if (slot >= orders.length) {
+            // Room for every slot the store has handed out, so later inserts do not grow again
+            growSlots(Math.max(slot + 1, entity.getStore().size()));
+        }
+        if (orders[slot] != NOT_IN_GRID) {
+            return;
+        }
+        orders[slot] = nextOrder++;
+        minCols[slot] = column(entity.getLeft());
+        maxCols[slot] = column(entity.getRight());
+        minRows[slot] = row(entity.getTop());
+        maxRows[slot] = row(entity.getBottom());
+        addToCells(entity);
+    }
+
+    /**
+     * Removes an entity from the grid so it is no longer found by queries.
+     *
+     * @param entity The entity to remove
+     */
+    public void remove(T entity) {
+        if (contains(entity)) {
+            removeFromCells(entity);
+            orders[entity.getSlot()] = NOT_IN_GRID;
+        }
+    }
+
+    /**
+     * Updates the cells of an entity after it has moved. Does nothing if the entity
+     * is not registered or still overlaps the same cells.
+     *
+     * @param entity The entity that moved
+     */
+    public void move(T entity) {
+        if (!contains(entity)) {
+            return;
+        }
+        int slot = entity.getSlot();
+        int minCol = column(entity.getLeft());
+        int maxCol = column(entity.getRight());
+        int minRow = row(entity.getTop());
+        int maxRow = row(entity.getBottom());
+
+        if (minCol != minCols[slot] || maxCol != maxCols[slot]
+                || minRow != minRows[slot] || maxRow != maxRows[slot]) {
+            removeFromCells(entity);
+            minCols[slot] = minCol;
+            maxCols[slot] = maxCol;
+            minRows[slot] = minRow;
+            maxRows[slot] = maxRow;
+            addToCells(entity);
+        }
+    }
+
+    /**
+     * Removes every entity from the grid, so it can be filled again from scratch.
+     * Entities inserted afterwards are ordered as if the grid were new.
+     */
+    public void clear() {
+        for (int i = 0; i < cells.size(); i++) {
+            ArrayList<T> cell = cells.get(i);
+            for (int j = 0; j < cell.size(); j++) {
+                orders[cell.get(j).getSlot()] = NOT_IN_GRID;
+            }
+            cell.clear();
+        }
+        nextOrder = 0;
+    }
+
+
+    /**
+     * Finds all registered entities whose bounding box intersects the given entity's,
+     * looking only at the cells it overlaps. Results are in the order the entities
+     * were registered.
+     *
+     * @param around The entity to search around
+     * @param results The list to fill in; cleared first
+     */
+    public void query(Entity around, ArrayList<T> results) {
+        results.clear();
+        queryStamp++;
+
+        int minCol = column(around.getLeft());
+        int maxCol = column(around.getRight());
+        int minRow = row(around.getTop());
+        int maxRow = row(around.getBottom());
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                ArrayList<T> cell = cells.get(row * columns + col);
+                for (int i = 0; i < cell.size(); i++) {
+                    T entity = cell.get(i);
+                    if (stamps[entity.getSlot()] != queryStamp && entity != around && entity.intersects(around)) {
+                        stamps[entity.getSlot()] = queryStamp;
+                        results.add(entity);
+                    }
+                }
+            }
+        }
+        sortByOrder(results);
+    }
+
+
+    /**
+     * Finds the earliest registered entity whose bounding box intersects the given entity's,
+     * looking only at the cells it overlaps.
+     *
+     * @param around The entity to search around
+     * @return The first intersecting entity, or null if there is none
+     */
+    public T findFirst(Entity around) {
+        T first = null;
+
+        int minCol = column(around.getLeft());
+        int maxCol = column(around.getRight());
+        int minRow = row(around.getTop());
+        int maxRow = row(around.getBottom());
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                ArrayList<T> cell = cells.get(row * columns + col);
+                for (int i = 0; i < cell.size(); i++) {
+                    T entity = cell.get(i);
+                    if ((first == null || orders[entity.getSlot()] < orders[first.getSlot()])
+                            && entity != around && entity.intersects(around)) {
+                        first = entity;
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+
+    private boolean contains(T entity) {
+        int slot = entity.getSlot();
+        return slot < orders.length && orders[slot] != NOT_IN_GRID;
+    }
+
+    private void addToCells(T entity) {
+        int slot = entity.getSlot();
+        for (int row = minRows[slot]; row <= maxRows[slot]; row++) {
+            for (int col = minCols[slot]; col <= maxCols[slot]; col++) {
+                cells.get(row * columns + col).add(entity);
+            }
+        }
+    }
+
+    private void removeFromCells(T entity) {
+        int slot = entity.getSlot();
+        for (int row = minRows[slot]; row <= maxRows[slot]; row++) {
+            for (int col = minCols[slot]; col <= maxCols[slot]; col++) {
+                cells.get(row * columns + col).remove(entity);
+            }
+        }
+    }
+
+    private void growSlots(int capacity) {
+        int oldCapacity = orders.length;
+        orders = Arrays.copyOf(orders, capacity);
+        Arrays.fill(orders, oldCapacity, capacity, NOT_IN_GRID);
+        stamps = Arrays.copyOf(stamps, capacity);
+        minCols = Arrays.copyOf(minCols, capacity);
+        maxCols = Arrays.copyOf(maxCols, capacity);
+        minRows = Arrays.copyOf(minRows, capacity);
+        maxRows = Arrays.copyOf(maxRows, capacity);
+    }
+
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+    /**
+     * Insertion sort by registration order; query results are small and nearly sorted.
+     */
+    private void sortByOrder(ArrayList<T> results) {
+        for (int i = 1; i < results.size(); i++) {
+            T entity = results.get(i);
+            int j = i - 1;
+            while (j >= 0 && orders[results.get(j).getSlot()] > orders[entity.getSlot()]) {
+                results.set(j + 1, results.get(j));
+                j--;
+            }
+            results.set(j + 1, entity);
+        }
+    }
+}
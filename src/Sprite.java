@@ -0,0 +1,114 @@
+import bagel.*;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An image resource used by game entities.
+ *
+ * The image's dimensions are read from the file header when the sprite is created,
+ * so all game logic (bounding boxes, alignment and edge checks) works without a
+ * window. The underlying Bagel image is only created when the game window asks
+ * for it (see Assets.createGraphics) or the first time the sprite is drawn, which
+ * keeps headless simulations free of any OpenGL calls.
+ *
+ * Sprites are shared; get them from Assets rather than creating them directly.
+ */
+public class Sprite {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final String path;
+    private final double width;
+    private final double height;
+
+    // Created lazily by the rendering thread on first draw; never touched by game logic,
+    // so sprites shared between simulation threads stay read-only
+    private Image image;
+
+
+    public Sprite(String path) {
+        this.path = path;
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+            Iterator<ImageReader> readers = (in == null) ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image file: " + path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                this.width = reader.getWidth(0);
+                this.height = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read image " + path, ex);
+        }
+    }
+
+    /**
+     * Draws the image centred at the given position, loading it on first use.
+     *
+     * @param x The x-coordinate of the centre
+     * @param y The y-coordinate of the centre
+     */
+    public void draw(double x, double y) {
+        createImage();
+        this.image.draw(x, y);
+    }
+
+    /**
+     * Creates the Bagel image now, if it has not been created yet, rather than on
+     * first draw. Must be called on the thread that owns the window.
+     */
+    public void createImage() {
+        if (this.image == null) {
+            this.image = new Image(this.path);
+        }
+    }
+
+    /**
+     * Gets the width of the image in pixels.
+     *
+     * @return The image width
+     */
+    public double getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gets the height of the image in pixels.
+     *
+     * @return The image height
+     */
+    public double getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Gets a number unique to this sprite, used to group draw commands by image.
+     *
+     * @return The sprite's id
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the file path the image was loaded from.
+     *
+     * @return The image path
+     */
+    public String getPath() {
+        return this.path;
+    }
+}
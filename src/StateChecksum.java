@@ -0,0 +1,78 @@
+/**
+ * Folds the state of the game into a 64-bit checksum instead of storing it.
+ *
+ * Anything that can write its state for a snapshot can be checksummed the same way,
+ * without allocating, so the whole game can be checked after every tick. Two runs
+ * whose checksums differ have diverged; runs with equal checksums have, with
+ * overwhelming likelihood, the same state.
+ */
+public class StateChecksum implements StateWriter {
+
+    // 64-bit FNV-1a parameters, applied a whole value at a time
+    private static final long OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    private long hash = OFFSET_BASIS;
+
+
+    @Override
+    public void writeInt(int value) {
+        mix(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        mix(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        mix(value ? 1 : 0);
+    }
+
+
+    /**
+     * Gets the checksum of everything written since the last reset.
+     *
+     * @return The checksum
+     */
+    public long getValue() {
+        return hash;
+    }
+
+    /**
+     * Gets the checksum folded to 32 bits, for storing one per tick.
+     *
+     * @return The folded checksum
+     */
+    public int getFoldedValue() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Starts a new checksum.
+     */
+    public void reset() {
+        this.hash = OFFSET_BASIS;
+    }
+
+
+    /**
+     * Checksums the whole state of a game between two updates.
+     *
+     * @param controller The game to checksum
+     * @return The checksum folded to 32 bits
+     */
+    public int checksum(GameController controller) {
+        reset();
+        controller.saveState(this);
+        return getFoldedValue();
+    }
+
+
+    private void mix(long value) {
+        hash = (hash ^ value) * PRIME;
+        // Multiplying only carries upwards, so fold the high bits back down
+        hash ^= hash >>> 32;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * This interface defines a source of game state written by a StateWriter.
+ * Values must be read in the same order and with the same types they were written.
+ */
+public interface StateReader {
+
+    /**
+     * Reads an integer value.
+     *
+     * @return The value read
+     */
+    int readInt();
+
+    /**
+     * Reads a double value.
+     *
+     * @return The value read
+     */
+    double readDouble();
+
+    /**
+     * Reads a boolean value.
+     *
+     * @return The value read
+     */
+    boolean readBoolean();
+}
@@ -0,0 +1,31 @@
+/**
+ * This interface defines a destination for the state of the game, written as a
+ * sequence of primitive values.
+ *
+ * Screens and entities write their state field by field in a fixed order, and read
+ * it back in the same order through a StateReader, so snapshots need no names or
+ * tags and stay small.
+ */
+public interface StateWriter {
+
+    /**
+     * Writes an integer value.
+     *
+     * @param value The value to write
+     */
+    void writeInt(int value);
+
+    /**
+     * Writes a double value.
+     *
+     * @param value The value to write
+     */
+    void writeDouble(double value);
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value The value to write
+     */
+    void writeBoolean(boolean value);
+}
@@ -0,0 +1,163 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A record of what one thread spent its time on, such as each simulation tick or
+ * each frame drawn, kept so the simulation and window threads can be compared
+ * side by side.
+ *
+ * Each span is an event name, the tick it belongs to and its start and end times.
+ * Spans are stored in preallocated arrays holding the most recent ones, so
+ * recording allocates nothing and costs two clock reads. A timeline is written by
+ * its own thread only, and must only be read once that thread has stopped
+ * recording.
+ *
+ * Timelines can be summarised as text, or saved in the Chrome trace event format
+ * and opened in chrome://tracing or Perfetto, which shows each thread as a row.
+ */
+public class ThreadTimeline {
+
+    public static final int DEFAULT_CAPACITY = 1 << 15;
+
+    private final String threadName;
+    private final String[] events;
+    private final long[] ticks;
+    private final long[] starts;
+    private final long[] ends;
+    private long spanCount = 0;
+
+
+    public ThreadTimeline(String threadName, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Timeline capacity must be at least 1, got " + capacity);
+        }
+        this.threadName = threadName;
+        this.events = new String[capacity];
+        this.ticks = new long[capacity];
+        this.starts = new long[capacity];
+        this.ends = new long[capacity];
+    }
+
+    /**
+     * Creates a timeline keeping the default number of most recent spans.
+     *
+     * @param threadName The name the thread is shown under
+     */
+    public ThreadTimeline(String threadName) {
+        this(threadName, DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Records one span, replacing the oldest once the timeline is full.
+     *
+     * @param event The name of what was done, normally a constant
+     * @param tick The simulation tick the span belongs to
+     * @param startNanos When it started, from System.nanoTime()
+     * @param endNanos When it ended, from System.nanoTime()
+     */
+    public void record(String event, long tick, long startNanos, long endNanos) {
+        int slot = (int) (spanCount % events.length);
+        events[slot] = event;
+        ticks[slot] = tick;
+        starts[slot] = startNanos;
+        ends[slot] = endNanos;
+        spanCount++;
+    }
+
+
+    /**
+     * Gets the name the thread is shown under.
+     *
+     * @return The thread name
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Gets the number of spans held, at most the capacity.
+     *
+     * @return The span count
+     */
+    public int size() {
+        return (int) Math.min(spanCount, events.length);
+    }
+
+    /**
+     * Gets the number of spans that no longer fit and were replaced.
+     *
+     * @return The dropped span count
+     */
+    public long getDroppedCount() {
+        return spanCount - size();
+    }
+
+
+    /**
+     * Prints the number, mean and longest duration of each kind of event.
+     */
+    public void printSummary() {
+        Map<String, long[]> stats = new LinkedHashMap<>();
+        for (int i = 0; i < size(); i++) {
+            int slot = slot(i);
+            long duration = ends[slot] - starts[slot];
+            long[] eventStats = stats.computeIfAbsent(events[slot], event -> new long[3]);
+            eventStats[0]++;
+            eventStats[1] += duration;
+            eventStats[2] = Math.max(eventStats[2], duration);
+        }
+        for (Map.Entry<String, long[]> entry : stats.entrySet()) {
+            long[] eventStats = entry.getValue();
+            System.out.printf("%s %s: count=%d mean=%.3fms max=%.3fms%n", threadName, entry.getKey(),
+                    eventStats[0], eventStats[1] / (eventStats[0] * 1_000_000.0), eventStats[2] / 1_000_000.0);
+        }
+    }
+
+
+    /**
+     * Saves timelines in the Chrome trace event format, one row per thread.
+     *
+     * @param path The file to write
+     * @param timelines The timelines to include
+     * @throws IOException If the file cannot be written
+     */
+    public static void save(String path, ThreadTimeline... timelines) throws IOException {
+        // Times are written in microseconds from the earliest span
+        long origin = Long.MAX_VALUE;
+        for (ThreadTimeline timeline : timelines) {
+            for (int i = 0; i < timeline.size(); i++) {
+                origin = Math.min(origin, timeline.starts[timeline.slot(i)]);
+            }
+        }
+
+        try (BufferedWriter out = Files.newBufferedWriter(Path.of(path))) {
+            out.write("{\"traceEvents\":[");
+            for (int thread = 0; thread < timelines.length; thread++) {
+                ThreadTimeline timeline = timelines[thread];
+                out.write((thread == 0) ? "\n" : ",\n");
+                out.write(String.format(Locale.ROOT, "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,"
+                        + "\"args\":{\"name\":\"%s\"}}", thread, timeline.threadName));
+                for (int i = 0; i < timeline.size(); i++) {
+                    int slot = timeline.slot(i);
+                    out.write(String.format(Locale.ROOT, ",\n{\"name\":\"%s\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,"
+                                    + "\"ts\":%.3f,\"dur\":%.3f,\"args\":{\"tick\":%d}}",
+                            timeline.events[slot], thread, (timeline.starts[slot] - origin) / 1000.0,
+                            (timeline.ends[slot] - timeline.starts[slot]) / 1000.0, timeline.ticks[slot]));
+                }
+            }
+            out.write("\n]}\n");
+        }
+    }
+
+
+    // Gets the slot of the i-th oldest span held
+    private int slot(int index) {
+        return (int) ((spanCount - size() + index) % events.length);
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Three copies of a value, used to hand the latest version from one producer
+ * thread to one consumer thread without locks and without either waiting for
+ * the other.
+ *
+ * The producer always fills its own back copy and then publishes it, swapping it
+ * with the middle copy. The consumer swaps its front copy with the middle one
+ * whenever something newer has been published, and otherwise keeps reading the
+ * copy it already has. Neither side ever touches the copy the other is using, so
+ * a slow consumer never holds up the producer: versions the consumer was too slow
+ * to see are simply replaced by newer ones.
+ *
+ * @param <T> The type of value handed over
+ */
+public class TripleBuffer<T> {
+
+    // The middle copy's index (bits 0-1) and whether it is newer than the front copy (bit 2)
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final T[] copies;
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    // Only used by the producer and the consumer respectively
+    private int back = 0;
+    private int front = 2;
+
+
+    /**
+     * Creates a buffer holding three copies made by the given factory.
+     *
+     * @param factory Makes each of the three copies
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory) {
+        this.copies = (T[]) new Object[] {factory.get(), factory.get(), factory.get()};
+    }
+
+
+    /**
+     * Gets the copy the producer fills next. Producer thread only.
+     *
+     * @return The back copy
+     */
+    public T getBack() {
+        return copies[back];
+    }
+
+    /**
+     * Makes the back copy the latest version for the consumer, and gives the
+     * producer a new back copy to fill. Producer thread only.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+
+    /**
+     * Gets the latest version published, swapping it in if it is newer than the
+     * one the consumer had. Consumer thread only.
+     *
+     * @return The front copy, which stays the consumer's until it calls this again
+     */
+    public T getLatest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return copies[front];
+    }
+
+    /**
+     * Checks whether a version newer than the consumer's front copy has been
+     * published.
+     *
+     * @return true if getLatest would swap in a new copy
+     */
+    public boolean hasNewer() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
@@ -0,0 +1,94 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The SIMD version of GravityIntegrator's pass, written with the JDK Vector API.
+ *
+ * Only loaded when the jdk.incubator.vector module is present; use GravityIntegrator
+ * rather than calling this directly.
+ */
+final class VectorGravityKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final long LANE_BITS = (LANES == Long.SIZE) ? -1L : (1L << LANES) - 1;
+
+    // Species with at most this many lanes keep every mask in a table; wider ones, whose
+    // table would be too large, build each block's mask as it is needed
+    private static final int MAX_TABLE_LANES = 8;
+
+    // Every mask over the lanes, indexed by its bits, so they are not rebuilt for every block
+    private static final VectorMask<Double>[] MASKS = (LANES <= MAX_TABLE_LANES) ? buildMasks() : null;
+
+
+    private VectorGravityKernel() {
+    }
+
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorMask<Double>[] buildMasks() {
+        VectorMask<Double>[] masks = new VectorMask[1 << LANES];
+        for (int bits = 0; bits < masks.length; bits++) {
+            masks[bits] = VectorMask.fromLong(SPECIES, bits);
+        }
+        return masks;
+    }
+
+
+    /**
+     * Applies gravity to the falling entities in a range of slots.
+     *
+     * Works on blocks of LANES slots aligned to a multiple of LANES, so each block's
+     * falling flags come from a single word of the store's bitsets. Lanes that are
+     * outside the range, dead or resting are left untouched by blending the new values
+     * with the old ones. The last block, if it would run past the end of the arrays,
+     * is done one slot at a time.
+     *
+     * @param store The store holding the entities
+     * @param fromSlot The first slot of the range
+     * @param toSlot One past the last slot of the range
+     */
+    static void integrate(EntityStore store, int fromSlot, int toSlot) {
+        double[] y = store.y;
+        double[] velocityY = store.velocityY;
+        double[] gravity = store.gravity;
+        double[] previousY = store.previousY;
+        double[] previousVelocityY = store.previousVelocityY;
+        DoubleVector maxFallSpeed = DoubleVector.broadcast(SPECIES, GravityApplyingEntity.MAX_FALL_SPEED);
+
+        int slot = fromSlot - (fromSlot % LANES);
+        for (; slot < toSlot && slot + LANES <= y.length; slot += LANES) {
+            long bits = store.fallingBits(slot) & LANE_BITS;
+            if (slot < fromSlot) {
+                bits &= -1L << (fromSlot - slot);
+            }
+            if (toSlot - slot < LANES) {
+                bits &= (1L << (toSlot - slot)) - 1;
+            }
+            if (bits == 0) {
+                continue;
+            }
+            VectorMask<Double> falling = (MASKS != null) ? MASKS[(int) bits] : VectorMask.fromLong(SPECIES, bits);
+
+            DoubleVector oldY = DoubleVector.fromArray(SPECIES, y, slot);
+            DoubleVector oldVelocityY = DoubleVector.fromArray(SPECIES, velocityY, slot);
+            DoubleVector newVelocityY = oldVelocityY.add(DoubleVector.fromArray(SPECIES, gravity, slot))
+                    .min(maxFallSpeed);
+            DoubleVector newY = oldY.add(newVelocityY);
+
+            DoubleVector.fromArray(SPECIES, previousY, slot).blend(oldY, falling).intoArray(previousY, slot);
+            DoubleVector.fromArray(SPECIES, previousVelocityY, slot).blend(oldVelocityY, falling)
+                    .intoArray(previousVelocityY, slot);
+            oldVelocityY.blend(newVelocityY, falling).intoArray(velocityY, slot);
+            oldY.blend(newY, falling).intoArray(y, slot);
+        }
+
+        // Finish any slots left over past the last whole block
+        for (slot = Math.max(slot, fromSlot); slot < toSlot; slot++) {
+            if ((store.fallingBits(slot) & 1L) != 0) {
+                GravityIntegrator.integrateSlot(store, slot);
+            }
+        }
+    }
+}